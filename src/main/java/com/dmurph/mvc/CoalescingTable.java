@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:20:03 AM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the keys that coalesce, and the undelivered event for each key (or
+ * key and {@link ICoalescable} id). The event first queued holds the place in
+ * the queue, and later events just replace the one it will be swapped for
+ * when it's taken, so coalescing is constant time.
+ * 
+ * @author Daniel Murphy
+ */
+class CoalescingTable {
+
+	private final ConcurrentHashMap<String, Boolean> keys = new ConcurrentHashMap<String, Boolean>();
+	private final ConcurrentHashMap<Object, Slot> pending = new ConcurrentHashMap<Object, Slot>();
+
+	public void setCoalescing(String argKey, boolean argCoalescing) {
+		if (argCoalescing) {
+			keys.put(argKey, Boolean.TRUE);
+		} else {
+			keys.remove(argKey);
+		}
+	}
+
+	public boolean isCoalescing(String argKey) {
+		return !keys.isEmpty() && keys.containsKey(argKey);
+	}
+
+	/**
+	 * Called before the event is queued.
+	 * 
+	 * @param argEvent
+	 * @return the undelivered event it replaced, or null if there wasn't one
+	 *         and the event needs to be queued
+	 */
+	public MVCEvent offer(MVCEvent argEvent) {
+		Object id = idFor(argEvent);
+		Slot slot = new Slot(argEvent);
+		while (true) {
+			Slot existing = pending.putIfAbsent(id, slot);
+			if (existing == null) {
+				return null;
+			}
+			synchronized (existing) {
+				if (!existing.taken) {
+					MVCEvent replaced = existing.latest;
+					existing.latest = argEvent;
+					return replaced;
+				}
+			}
+			// being delivered, so we need a new place in the queue
+			pending.remove(id, existing);
+		}
+	}
+
+	/**
+	 * Called when an event is taken off the queue.
+	 * 
+	 * @param argQueued
+	 * @return the newest event to deliver in its place
+	 */
+	public MVCEvent take(MVCEvent argQueued) {
+		if (!isCoalescing(argQueued.key) && pending.isEmpty()) {
+			return argQueued;
+		}
+		Object id = idFor(argQueued);
+		Slot slot = pending.get(id);
+		if (slot == null || slot.queued != argQueued) {
+			return argQueued;
+		}
+		MVCEvent latest;
+		synchronized (slot) {
+			slot.taken = true;
+			latest = slot.latest;
+		}
+		pending.remove(id, slot);
+		return latest;
+	}
+
+	private static Object idFor(MVCEvent argEvent) {
+		if (argEvent instanceof ICoalescable) {
+			Object id = ((ICoalescable) argEvent).getCoalescingId();
+			if (id != null) {
+				return new CompositeId(argEvent.key, id);
+			}
+		}
+		return argEvent.key;
+	}
+
+	private static class Slot {
+		final MVCEvent queued;
+		MVCEvent latest;
+		boolean taken = false;
+
+		Slot(MVCEvent argQueued) {
+			queued = argQueued;
+			latest = argQueued;
+		}
+	}
+
+	private static class CompositeId {
+		private final String key;
+		private final Object id;
+
+		CompositeId(String argKey, Object argId) {
+			key = argKey;
+			id = argId;
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() * 31 + id.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object argOther) {
+			if (!(argOther instanceof CompositeId)) {
+				return false;
+			}
+			CompositeId other = (CompositeId) argOther;
+			return key.equals(other.key) && id.equals(other.id);
+		}
+	}
+}
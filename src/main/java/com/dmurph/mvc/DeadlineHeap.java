@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 2:31:55 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.PriorityQueue;
+
+/**
+ * Events with deadlines that were taken off a shard's queue, earliest
+ * deadline first. Events with the same deadline stay in the order they were
+ * added. Only used by the main {@link MVC} thread of the shard.
+ * 
+ * @author Daniel Murphy
+ */
+class DeadlineHeap {
+
+	private final PriorityQueue<Entry> heap = new PriorityQueue<Entry>();
+	private long sequence = 0;
+
+	public void add(MVCEvent argEvent) {
+		heap.add(new Entry(argEvent, argEvent.getDeadlineNanos(), sequence++));
+	}
+
+	/**
+	 * @return the event with the earliest deadline, or null if empty
+	 */
+	public MVCEvent poll() {
+		Entry entry = heap.poll();
+		return entry == null ? null : entry.event;
+	}
+
+	public boolean isEmpty() {
+		return heap.isEmpty();
+	}
+
+	public int size() {
+		return heap.size();
+	}
+
+	private static class Entry implements Comparable<Entry> {
+		final MVCEvent event;
+		final long deadline;
+		final long sequence;
+
+		Entry(MVCEvent argEvent, long argDeadline, long argSequence) {
+			event = argEvent;
+			deadline = argDeadline;
+			sequence = argSequence;
+		}
+
+		public int compareTo(Entry argOther) {
+			// nanoTime values can wrap, so compare the difference
+			long diff = deadline - argOther.deadline;
+			if (diff == 0) {
+				diff = sequence - argOther.sequence;
+			}
+			return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 4:55:31 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+/**
+ * Trailing edge debounce: holds the newest event of the key, and only
+ * queues it once no other event of the key was dispatched for the quiet
+ * period. Held events count as in flight, and each one replaced by a newer
+ * event is suppressed.
+ * 
+ * @author Daniel Murphy
+ */
+class Debouncer extends DispatchOperator implements Runnable {
+
+	private final EventBus bus;
+	private final TimerWheel timers;
+	private final long quietNanos;
+
+	private MVCEvent held = null;
+	private long lastNanos;
+	private boolean scheduled = false;
+	private boolean stopped = false;
+
+	public Debouncer(EventBus argBus, TimerWheel argTimers, long argQuietNanos) {
+		bus = argBus;
+		timers = argTimers;
+		quietNanos = argQuietNanos;
+	}
+
+	@Override
+	public boolean admit(MVCEvent argEvent) {
+		bus.eventStarted(argEvent);
+		MVCEvent replaced;
+		synchronized (this) {
+			if (stopped) {
+				replaced = argEvent;
+			} else {
+				replaced = held;
+				held = argEvent;
+				lastNanos = System.nanoTime();
+				if (!scheduled) {
+					scheduled = true;
+					timers.schedule(this, quietNanos);
+				}
+			}
+		}
+		if (replaced != null) {
+			bus.suppress(replaced, true);
+		}
+		return false;
+	}
+
+	/**
+	 * Drops the held event, and holds no more.
+	 */
+	@Override
+	public void shutdown() {
+		MVCEvent event;
+		synchronized (this) {
+			stopped = true;
+			event = held;
+			held = null;
+		}
+		if (event != null) {
+			bus.eventDropped(event, "the bus was shut down");
+		}
+	}
+
+	/**
+	 * Called by the timer, queues the held event if it's been quiet long
+	 * enough, otherwise waits for the rest of the quiet period. Checking
+	 * when the timer fires means each event doesn't have to reschedule it.
+	 */
+	public void run() {
+		MVCEvent event;
+		synchronized (this) {
+			if (stopped) {
+				return;
+			}
+			long remaining = quietNanos - (System.nanoTime() - lastNanos);
+			if (remaining > 0) {
+				timers.schedule(this, remaining);
+				return;
+			}
+			event = held;
+			held = null;
+			scheduled = false;
+		}
+		if (event != null) {
+			bus.queueStarted(event);
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 2:52:40 AM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where an {@link MVC} thread is in dispatching: the event, the snapshot of
+ * its listeners and the next listener to call. When the event starts a run of
+ * events of the same key for {@link IBatchEventListener}s, the cursor walks
+ * each event of the run in turn, collecting the events that reach each batch
+ * listener so it can be called with them once the last event has been
+ * through. {@link MVC#splitOff()} hands the cursor over to the next thread.
+ * 
+ * @author Daniel Murphy
+ */
+class DispatchCursor {
+
+	public final IEventListener[] listeners;
+	/**
+	 * The run of events for batch listeners, or null.
+	 */
+	public final List<MVCEvent> run;
+	public int runIndex = 0;
+	public MVCEvent event;
+	public int listenerIndex = 0;
+	// made when the first filtered listener is reached
+	private FilterMemo memo = null;
+	// the events collected for each batch listener, by its index
+	private ArrayList<List<MVCEvent>> batches = null;
+	// the events of the run that were collected, which finish once the
+	// batches have been delivered
+	private boolean[] held = null;
+
+	public DispatchCursor(MVCEvent argEvent, IEventListener[] argListeners,
+			List<MVCEvent> argRun) {
+		event = argEvent;
+		listeners = argListeners;
+		run = argRun;
+	}
+
+	public boolean hasNextListener() {
+		return listeners != null && listenerIndex < listeners.length
+				&& event.isPropagating();
+	}
+
+	public IEventListener nextListener() {
+		return listeners[listenerIndex++];
+	}
+
+	/**
+	 * @return the memo of filter results for the current event
+	 */
+	public FilterMemo getMemo() {
+		if (memo == null) {
+			memo = new FilterMemo();
+		}
+		return memo;
+	}
+
+	/**
+	 * @return if the current event is the last of its run, which is when
+	 *         batch listeners receive the events that reached them
+	 */
+	public boolean isEndOfRun() {
+		return run == null || runIndex == run.size() - 1;
+	}
+
+	/**
+	 * Collects the current event for the batch listener.
+	 * 
+	 * @param argListenerIndex
+	 */
+	public void collect(int argListenerIndex) {
+		if (batches == null) {
+			batches = new ArrayList<List<MVCEvent>>(listeners.length);
+			for (int i = 0; i < listeners.length; i++) {
+				batches.add(null);
+			}
+			held = new boolean[run.size()];
+		}
+		List<MVCEvent> batch = batches.get(argListenerIndex);
+		if (batch == null) {
+			batch = new ArrayList<MVCEvent>();
+			batches.set(argListenerIndex, batch);
+		}
+		batch.add(event);
+		held[runIndex] = true;
+	}
+
+	/**
+	 * @param argListenerIndex
+	 * @return the events collected for the batch listener, or null if there
+	 *         are none. They're only handed out once.
+	 */
+	public List<MVCEvent> takeBatch(int argListenerIndex) {
+		if (batches == null) {
+			return null;
+		}
+		return batches.set(argListenerIndex, null);
+	}
+
+	/**
+	 * @return the index of a batch listener whose events haven't been
+	 *         handed out, as the last event of the run never reached it, or
+	 *         -1 if there are none
+	 */
+	public int nextUndelivered() {
+		if (batches != null) {
+			for (int i = 0; i < batches.size(); i++) {
+				if (batches.get(i) != null) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param argRunIndex
+	 * @return if the event of the run was collected for a batch listener
+	 */
+	public boolean isHeld(int argRunIndex) {
+		return held != null && held[argRunIndex];
+	}
+
+	/**
+	 * @return the events of the cursor that haven't finished, which are the
+	 *         current event, the events of the run after it, and the events
+	 *         before it held for batch listeners
+	 */
+	public List<MVCEvent> unfinished() {
+		ArrayList<MVCEvent> unfinished = new ArrayList<MVCEvent>();
+		if (run == null) {
+			unfinished.add(event);
+			return unfinished;
+		}
+		for (int i = 0; i < run.size(); i++) {
+			if (i >= runIndex || isHeld(i)) {
+				unfinished.add(run.get(i));
+			}
+		}
+		return unfinished;
+	}
+
+	/**
+	 * Moves on to the next event of the run.
+	 * 
+	 * @return false if there are no more events
+	 */
+	public boolean nextEvent() {
+		if (run == null || runIndex + 1 >= run.size()) {
+			return false;
+		}
+		event = run.get(++runIndex);
+		listenerIndex = 0;
+		if (memo != null) {
+			memo.clear();
+		}
+		return true;
+	}
+}
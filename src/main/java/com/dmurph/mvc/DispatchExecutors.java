@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 9:11:48 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executors to use with {@link MVC#setBlockingExecutor(java.util.concurrent.Executor)}.
+ * 
+ * @author Daniel Murphy
+ */
+public class DispatchExecutors {
+
+	private static final Logger log = LoggerFactory.getLogger(DispatchExecutors.class);
+
+	/**
+	 * Default number of threads for {@link #newBoundedExecutor(int)}.
+	 */
+	public static final int DEFAULT_POOL_SIZE = Math.max(8, Runtime
+			.getRuntime().availableProcessors() * 2);
+
+	private DispatchExecutors() {}
+
+	/**
+	 * Creates an executor that starts a new virtual thread for each task. This
+	 * is looked up reflectively, so it works on any JDK and just returns null
+	 * if virtual threads aren't supported.
+	 * 
+	 * @return the executor, or null if virtual threads aren't supported
+	 */
+	public static ExecutorService newVirtualThreadExecutor() {
+		try {
+			Method method = java.util.concurrent.Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch (Exception e) {
+			// NoSuchMethodException before they existed, and
+			// UnsupportedOperationException while they were a preview
+			log.debug("Virtual threads are not supported", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a fixed pool of daemon threads. Threads that have been idle for
+	 * a minute finish, and are started again when needed.
+	 * 
+	 * @param argThreads
+	 *            the maximum number of threads
+	 * @return
+	 */
+	public static ExecutorService newBoundedExecutor(int argThreads) {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(argThreads,
+				argThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					private final AtomicInteger count = new AtomicInteger();
+
+					public Thread newThread(Runnable argRunnable) {
+						Thread thread = new Thread(argRunnable,
+								"MVC Blocking Thread #" + count.getAndIncrement());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * @return a virtual thread executor if the JDK supports it, otherwise a
+	 *         bounded pool of {@link #DEFAULT_POOL_SIZE} threads.
+	 */
+	public static ExecutorService newDefaultExecutor() {
+		ExecutorService executor = newVirtualThreadExecutor();
+		if (executor != null) {
+			return executor;
+		}
+		return newBoundedExecutor(DEFAULT_POOL_SIZE);
+	}
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 11:47:19 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The result of {@link MVCEvent#dispatchAsync()} or
+ * {@link RequestEvent#request()}, done once every listener has received the
+ * event. Dispatches can't be cancelled by the caller, but when the bus drops
+ * the event instead, as the queue was full, its deadline passed, or it was
+ * coalesced or suppressed, the future is cancelled. Add a done listener with
+ * {@link #addDoneListener(Runnable)} to carry on as soon as it's done instead
+ * of waiting for it.
+ * 
+ * @author Daniel Murphy
+ */
+public class DispatchFuture<V> implements Future<V> {
+
+	private static final Logger log = LoggerFactory.getLogger(DispatchFuture.class);
+
+	private final CountDownLatch latch = new CountDownLatch(1);
+	private ArrayList<Runnable> doneListeners = new ArrayList<Runnable>();
+	private volatile V value = null;
+	private volatile Throwable failure = null;
+
+	/**
+	 * Adds a listener that is called once this is done, on the thread that
+	 * finished the dispatch. If this is already done, the listener is called
+	 * right away on this thread.
+	 * 
+	 * @param argListener
+	 */
+	public void addDoneListener(Runnable argListener) {
+		synchronized (this) {
+			if (doneListeners != null) {
+				doneListeners.add(argListener);
+				return;
+			}
+		}
+		runDoneListener(argListener);
+	}
+
+	/**
+	 * Dispatches can't be cancelled.
+	 * 
+	 * @return false
+	 */
+	public boolean cancel(boolean argMayInterruptIfRunning) {
+		return false;
+	}
+
+	/**
+	 * @return if the bus dropped the event instead of dispatching it
+	 */
+	public boolean isCancelled() {
+		return failure instanceof CancellationException;
+	}
+
+	public boolean isDone() {
+		return latch.getCount() == 0;
+	}
+
+	/**
+	 * @return the value, which is null unless this is for a
+	 *         {@link RequestEvent}
+	 * @throws ExecutionException
+	 *             if a listener threw an exception
+	 * @throws CancellationException
+	 *             if the bus dropped the event
+	 */
+	public V get() throws InterruptedException, ExecutionException {
+		latch.await();
+		return getValue();
+	}
+
+	/**
+	 * @see #get()
+	 */
+	public V get(long argTimeout, TimeUnit argUnit)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		if (!latch.await(argTimeout, argUnit)) {
+			throw new TimeoutException();
+		}
+		return getValue();
+	}
+
+	private V getValue() throws ExecutionException {
+		if (failure instanceof CancellationException) {
+			throw (CancellationException) failure;
+		}
+		if (failure != null) {
+			throw new ExecutionException(failure);
+		}
+		return value;
+	}
+
+	@SuppressWarnings("unchecked")
+	void completeUnchecked(Object argValue) {
+		complete((V) argValue);
+	}
+
+	void complete(V argValue) {
+		finish(argValue, null);
+	}
+
+	void fail(Throwable argFailure) {
+		finish(null, argFailure);
+	}
+
+	private void finish(V argValue, Throwable argFailure) {
+		ArrayList<Runnable> listeners;
+		synchronized (this) {
+			if (doneListeners == null) {
+				return;
+			}
+			value = argValue;
+			failure = argFailure;
+			listeners = doneListeners;
+			doneListeners = null;
+		}
+		latch.countDown();
+		for (Runnable listener : listeners) {
+			runDoneListener(listener);
+		}
+	}
+
+	private void runDoneListener(Runnable argListener) {
+		try {
+			argListener.run();
+		} catch (Exception e) {
+			log.error("Exception caught from done listener", e);
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 4:48:02 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+/**
+ * Decides if an event of a key is queued right away, held back, or
+ * suppressed, before it ever reaches the queue. At most one operator is set
+ * per key.
+ * 
+ * @author Daniel Murphy
+ * @see MVC#setDebounce(String, long, java.util.concurrent.TimeUnit)
+ * @see MVC#setThrottle(String, int, long, java.util.concurrent.TimeUnit)
+ */
+abstract class DispatchOperator {
+
+	/**
+	 * Called with each event of the key dispatched, before it's started.
+	 * 
+	 * @param argEvent
+	 * @return true if the event should be queued now, false if the operator
+	 *         has taken care of it
+	 */
+	public abstract boolean admit(MVCEvent argEvent);
+
+	/**
+	 * Called when the bus shuts down, to drop any event the operator is
+	 * holding back. Does nothing by default.
+	 */
+	public void shutdown() {}
+}
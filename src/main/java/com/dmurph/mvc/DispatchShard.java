@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 7:45:52 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+import com.dmurph.mvc.queue.IEventQueue;
+
+/**
+ * One lane of dispatching: a queue and the main dispatch thread that drains
+ * it. Every key is assigned to exactly one shard, so events of the same key
+ * are always dispatched in order, while keys in different shards are
+ * dispatched in parallel.
+ * 
+ * @author Daniel Murphy
+ */
+class DispatchShard {
+
+	public final int index;
+	public final IEventQueue queue;
+	/**
+	 * Guards {@link #mainThread} and the split off hand over.
+	 */
+	public final Object mainThreadLock = new Object();
+
+	public volatile EventBus.DispatchThread mainThread = null;
+	public int threadCount = 0;
+	/**
+	 * An event taken from the queue while gathering a run of events for
+	 * batch listeners, which has to be dispatched next.
+	 */
+	public volatile MVCEvent pending = null;
+	/**
+	 * Where the last main thread was when it was stopped, so the next one can
+	 * carry on from there.
+	 */
+	public volatile DispatchCursor suspended = null;
+	/**
+	 * Events with deadlines taken off the queue, to be dispatched earliest
+	 * deadline first.
+	 */
+	public final DeadlineHeap deadlines = new DeadlineHeap();
+	/**
+	 * Calls to Swing listeners waiting to be handed to the event dispatch
+	 * thread at the end of the drain cycle.
+	 */
+	public SwingBatch swing = new SwingBatch();
+
+	public DispatchShard(int argIndex, IEventQueue argQueue) {
+		index = argIndex;
+		queue = argQueue;
+	}
+}
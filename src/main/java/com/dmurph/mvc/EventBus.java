@@ -0,0 +1,2791 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 1:12:44 PM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.swing.SwingUtilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dmurph.mvc.monitor.EventMonitor;
+import com.dmurph.mvc.monitor.LoggingMonitor;
+import com.dmurph.mvc.monitor.WarningMonitor;
+import com.dmurph.mvc.queue.IEventQueue;
+import com.dmurph.mvc.queue.IEventQueueFactory;
+import com.dmurph.mvc.queue.LinkedEventQueue;
+import com.dmurph.mvc.queue.PriorityLaneEventQueue;
+import com.dmurph.mvc.queue.RingBufferEventQueue;
+import com.dmurph.mvc.tracking.ICustomTracker;
+import com.dmurph.mvc.tracking.ITrackable;
+import com.dmurph.tracking.JGoogleAnalyticsTracker;
+
+/**
+ * Dispatches events to the listeners added to it, on its own dispatch
+ * threads. Each bus has its own listeners, queues, threads, monitor and
+ * settings, so buses for unrelated parts of an application, or for tests
+ * running in parallel, never hold each other up or share a lock. The static
+ * methods of {@link MVC} use a default bus, which is where
+ * {@link MVCEvent#dispatch()} sends events, and other buses are used through
+ * their own methods, like {@link #dispatchEvent(MVCEvent)}.
+ * <p>
+ * Listeners of any bus can call {@link MVC#splitOff()} to split off from
+ * their bus.
+ * 
+ * @author Daniel Murphy
+ */
+public class EventBus {
+
+	private static final Logger log = LoggerFactory.getLogger(EventBus.class);
+
+	private static final ThreadGroup mvcThreadGroup = new ThreadGroup(
+			"MVC Thread Group");
+	private final String name;
+	private final List<DispatchThread> threads = Collections
+			.synchronizedList(new ArrayList<DispatchThread>());
+	private final SplitOffPool splitOffPool = new SplitOffPool();
+	private final QuiescenceTracker quiescence = new QuiescenceTracker();
+
+	/**
+	 * Default for {@link #setMaxBatchSize(int)}.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+	private volatile int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+	private volatile OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+	private volatile long overflowTimeoutNanos = 0;
+
+	/**
+	 * Maximum nested {@link #dispatchSync(MVCEvent)} calls on one thread.
+	 */
+	public static final int MAX_SYNC_DEPTH = 32;
+	private static final ThreadLocal<ArrayList<MVCEvent>> syncDispatching = new ThreadLocal<ArrayList<MVCEvent>>() {
+		@Override
+		protected ArrayList<MVCEvent> initialValue() {
+			return new ArrayList<MVCEvent>();
+		}
+	};
+	private final ListenerRegistry listeners = new ListenerRegistry();
+	private final CoalescingTable coalescing = new CoalescingTable();
+	private final ConcurrentHashMap<String, Integer> keyPriorities = new ConcurrentHashMap<String, Integer>();
+	private final TimerWheel timers = new TimerWheel(this);
+	private final StickyCache stickies = new StickyCache();
+	private final ConcurrentHashMap<String, DispatchOperator> operators = new ConcurrentHashMap<String, DispatchOperator>();
+	private final Object shardsLock = new Object();
+	private volatile DispatchShard[] shards = { new DispatchShard(0,
+			new LinkedEventQueue()) };
+
+	private final Object trackerLock = new Object();
+	private volatile JGoogleAnalyticsTracker tracker = null;
+	private final Object blockingExecutorLock = new Object();
+	private volatile Executor blockingExecutor = null;
+	// if the blocking executor is the default one, which the bus shuts down
+	private boolean ownsBlockingExecutor = false;
+	private volatile boolean shutDown = false;
+	private final Object monitorLock = new Object();
+	private final Object stickyLock = new Object();
+	private volatile IGlobalEventMonitor monitor = new LoggingMonitor();
+	private volatile Watchdog watchdog = null;
+	private volatile LatencyStats latency = null;
+
+	/**
+	 * Creates a bus, with threads named after it.
+	 * 
+	 * @param argName
+	 */
+	public EventBus(String argName) {
+		if (argName == null) {
+			throw new NullPointerException("Name cannot be null");
+		}
+		name = argName;
+	}
+
+	/**
+	 * @return the name of this bus
+	 */
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "-" + name;
+	}
+
+	/**
+	 * @return the bus of the calling thread, or null if it isn't a dispatch
+	 *         thread
+	 */
+	static EventBus current() {
+		Thread thread = Thread.currentThread();
+		if (thread instanceof DispatchThread) {
+			return ((DispatchThread) thread).getBus();
+		}
+		return null;
+	}
+
+	public void setTracker(JGoogleAnalyticsTracker argTracker) {
+		synchronized (trackerLock) {
+			tracker = argTracker;
+		}
+	}
+
+	public JGoogleAnalyticsTracker getTracker() {
+		return tracker;
+	}
+
+	private String threadName(DispatchShard argShard, int argNum) {
+		if (shards.length == 1) {
+			return name + " Thread #" + argNum;
+		}
+		return name + " Thread #" + argShard.index + "-" + argNum;
+	}
+
+	/**
+	 * Sets the queue that holds events waiting to be dispatched. The default
+	 * is a {@link LinkedEventQueue}; for many producer threads use a
+	 * {@link RingBufferEventQueue}. This also goes back to a single dispatch
+	 * thread, see {@link #setDispatchShards(int, IEventQueueFactory)}. This has
+	 * to be done at startup, before any events are dispatched, or after
+	 * {@link #stopDispatchThread(long)} once the queue has been emptied.
+	 * 
+	 * @param argQueue
+	 * @throws RuntimeException
+	 *             if the dispatch thread is running or there are still
+	 *             events queued
+	 */
+	public void setEventQueue(final IEventQueue argQueue) {
+		if (argQueue == null) {
+			throw new NullPointerException("Queue cannot be null");
+		}
+		setDispatchShards(1, new IEventQueueFactory() {
+			public IEventQueue createEventQueue(int argShard) {
+				return argQueue;
+			}
+		});
+	}
+
+	/**
+	 * Gets the queue that holds events waiting to be dispatched. If there is
+	 * more than one dispatch shard, this is the queue of the first one.
+	 * 
+	 * @return
+	 * @see #setEventQueue(IEventQueue)
+	 */
+	public IEventQueue getEventQueue() {
+		return shards[0].queue;
+	}
+
+	/**
+	 * Same as {@link #setDispatchShards(int, IEventQueueFactory)}, with each
+	 * shard using a {@link LinkedEventQueue}.
+	 * 
+	 * @param argCount
+	 */
+	public void setDispatchShards(int argCount) {
+		setDispatchShards(argCount, new IEventQueueFactory() {
+			public IEventQueue createEventQueue(int argShard) {
+				return new LinkedEventQueue();
+			}
+		});
+	}
+
+	/**
+	 * Sets the number of dispatch threads. Each key is assigned to a shard by
+	 * its hash code, and each shard has its own queue and its own main MVC
+	 * thread, so events of one key are still dispatched in the order they were
+	 * dispatched, while events of keys in different shards are dispatched in
+	 * parallel. {@link #splitOff()} only hands over the shard of the calling
+	 * thread. The default is one shard. Like
+	 * {@link #setEventQueue(IEventQueue)}, this has to be done before any
+	 * events are dispatched, or after {@link #stopDispatchThread(long)}.
+	 * 
+	 * @param argCount
+	 *            the number of shards, and so the number of dispatch threads
+	 * @param argFactory
+	 *            creates the queue for each shard
+	 * @throws RuntimeException
+	 *             if the dispatch threads are running or there are still
+	 *             events queued
+	 */
+	public void setDispatchShards(int argCount,
+			IEventQueueFactory argFactory) {
+		if (argCount < 1) {
+			throw new IllegalArgumentException(
+					"There must be at least one shard");
+		}
+		synchronized (shardsLock) {
+			if (isDispatchThreadRunning()) {
+				throw new RuntimeException(
+						"Cannot change the event queue while events are being dispatched");
+			}
+			for (DispatchShard shard : shards) {
+				if (!shard.queue.isEmpty() || !shard.deadlines.isEmpty()) {
+					throw new RuntimeException(
+							"Cannot change the event queue while events are being dispatched");
+				}
+			}
+			DispatchShard[] newShards = new DispatchShard[argCount];
+			for (int i = 0; i < argCount; i++) {
+				newShards[i] = new DispatchShard(i,
+						argFactory.createEventQueue(i));
+			}
+			shards = newShards;
+		}
+	}
+
+	/**
+	 * @return the number of dispatch shards
+	 * @see #setDispatchShards(int, IEventQueueFactory)
+	 */
+	public int getDispatchShardCount() {
+		return shards.length;
+	}
+
+	private DispatchShard shardFor(String argKey) {
+		DispatchShard[] current = shards;
+		if (current.length == 1) {
+			return current[0];
+		}
+		return current[(argKey.hashCode() & Integer.MAX_VALUE)
+				% current.length];
+	}
+
+	/**
+	 * Adds a listener for the given event key. If the listener is already
+	 * listening to that key, then nothing is done. Listeners are kept in an
+	 * immutable snapshot per key, so this never waits on the mvc thread. If the
+	 * key is being dispatched at the same time, the new listener will receive
+	 * the next event of that key.
+	 * <p>
+	 * The key can be a pattern, where segments are separated by dots. A
+	 * <code>*</code> segment matches any one segment, and a <code>**</code>
+	 * segment matches any number of segments, so <code>order.*</code> matches
+	 * <code>order.created</code>, and <code>order.**</code> also matches
+	 * <code>order.updated.price</code>. Listeners of a pattern receive events
+	 * after the listeners of the key itself.
+	 * 
+	 * @param argKey
+	 * @param argListener
+	 */
+	public void addEventListener(String argKey,
+			IEventListener argListener) {
+		if (argKey == null) {
+			throw new RuntimeException("Key cannot be null");
+		}
+
+		boolean added;
+		StickyCache.Entry sticky = null;
+		if (stickies.isSticky(argKey)) {
+			// under the same lock the dispatch thread records the event and
+			// reads its listeners, so the listener either gets the event from
+			// the dispatch thread or has it replayed, never both
+			synchronized (stickyLock) {
+				added = listeners.add(argKey, argListener);
+				if (added) {
+					sticky = stickies.get(argKey);
+				}
+			}
+		} else {
+			added = listeners.add(argKey, argListener);
+		}
+		if (!added) {
+			log.debug("We already have that listener here", argListener);
+			return;
+		}
+		if (sticky != null) {
+			StickyReplayEvent replay = new StickyReplayEvent(argKey,
+					argListener, sticky.sequence);
+			replay.bus = this;
+			DispatchShard shard = shardFor(argKey);
+			eventStarted(replay);
+			if (canWaitFor(shard)) {
+				shard.queue.putAll(Collections.<MVCEvent> singletonList(replay));
+			} else if (!shard.queue.offer(replay)) {
+				// added by a listener of the shard, which can't wait on
+				// its own queue
+				tryOverflowMonitor(replay, OverflowPolicy.DROP_NEWEST);
+				eventFinished(replay);
+				return;
+			}
+			if (!isShardRunning(shard)) {
+				startShard(shard);
+			}
+		}
+	}
+
+	/**
+	 * Sets if the key is sticky. The last event dispatched of a sticky key is
+	 * kept, and when a listener is added to the key later it receives that
+	 * event on the dispatch thread, before any newer events. Only the last
+	 * events of the most recently used {@link #getMaxStickyKeys()} sticky
+	 * keys are kept.
+	 * 
+	 * @param argKey
+	 * @param argSticky
+	 */
+	public void setSticky(String argKey, boolean argSticky) {
+		stickies.setSticky(argKey, argSticky);
+	}
+
+	/**
+	 * @param argKey
+	 * @return if the key is sticky
+	 * @see #setSticky(String, boolean)
+	 */
+	public boolean isSticky(String argKey) {
+		return stickies.isSticky(argKey);
+	}
+
+	/**
+	 * Sets how many sticky keys have their last event kept. The least
+	 * recently used are forgotten first. Default is
+	 * {@value StickyCache#DEFAULT_MAX_KEYS}.
+	 * 
+	 * @param argMaxKeys
+	 */
+	public void setMaxStickyKeys(int argMaxKeys) {
+		if (argMaxKeys < 1) {
+			throw new IllegalArgumentException("Max keys must be positive");
+		}
+		stickies.setMaxKeys(argMaxKeys);
+	}
+
+	/**
+	 * @return how many sticky keys have their last event kept
+	 */
+	public int getMaxStickyKeys() {
+		return stickies.getMaxKeys();
+	}
+
+	/**
+	 * @param argKey
+	 * @return the last event dispatched of the sticky key, or null if there
+	 *         isn't one
+	 */
+	public MVCEvent getStickyEvent(String argKey) {
+		StickyCache.Entry sticky = stickies.get(argKey);
+		return sticky == null ? null : sticky.event;
+	}
+
+	/**
+	 * Checks to see if the listener is listening to the given key.
+	 * 
+	 * @param argKey
+	 * @param argListener
+	 * @return
+	 */
+	public boolean isEventListener(String argKey,
+			IEventListener argListener) {
+		if (argKey == null) {
+			throw new RuntimeException("Key cannot be null");
+		}
+
+		return listeners.contains(argKey, argListener);
+	}
+
+	/**
+	 * Adds a listener for the given event key that only receives the events
+	 * the filter accepts. The filter is checked by the dispatcher, and equal
+	 * filters of other listeners on the key are only checked once per event.
+	 * The listener can be removed or looked up without the filter.
+	 * 
+	 * @param argKey
+	 * @param argFilter
+	 * @param argListener
+	 * @see EventFilters
+	 */
+	public void addEventListener(String argKey, IEventFilter argFilter,
+			IEventListener argListener) {
+		if (argFilter == null) {
+			throw new RuntimeException("Filter cannot be null");
+		}
+		addEventListener(argKey, new FilteredListener(argFilter, argListener));
+	}
+
+	/**
+	 * Adds a listener for the given event key that is only weakly referenced,
+	 * so it doesn't keep the listener from being garbage collected, like a
+	 * panel that is closed without removing its listeners. Once it's
+	 * collected the dispatcher removes it from the key. Otherwise it's like
+	 * {@link #addEventListener(String, IEventListener)}, and it can be
+	 * removed or looked up the same way. Make sure something else references
+	 * the listener, as an anonymous listener that nothing references can be
+	 * collected right away.
+	 * 
+	 * @param argKey
+	 * @param argListener
+	 */
+	public void addWeakEventListener(String argKey,
+			IEventListener argListener) {
+		if (argKey == null) {
+			throw new RuntimeException("Key cannot be null");
+		}
+		if (argListener == null) {
+			throw new RuntimeException("Listener cannot be null");
+		}
+		addEventListener(argKey, listeners.weak(argKey, argListener));
+	}
+
+	/**
+	 * Same as {@link #addSwingEventListener(String, IEventListener, boolean)},
+	 * with the dispatch thread not waiting for the listener.
+	 * 
+	 * @param argKey
+	 * @param argListener
+	 */
+	public void addSwingEventListener(String argKey,
+			IEventListener argListener) {
+		addSwingEventListener(argKey, argListener, false);
+	}
+
+	/**
+	 * Adds a listener for the given event key that is called on the Swing
+	 * event dispatch thread, so it can update the UI without wrapping itself
+	 * in <code>SwingUtilities.invokeLater</code>. The calls to Swing
+	 * listeners made while a dispatch thread empties its queue are handed to
+	 * the event dispatch thread together, with one <code>invokeLater</code>,
+	 * and run there in the order they were made.
+	 * <p>
+	 * If the listener is called in order, the dispatch thread waits for it,
+	 * and for the Swing listener calls before it, before going on to the next
+	 * listener, so later listeners see what it did and
+	 * {@link MVCEvent#stopPropagation()} works. Otherwise the dispatch thread
+	 * carries on straight away, like it does for an
+	 * {@link IBlockingEventListener}. The event dispatch thread must not wait
+	 * on the dispatch thread while there are in order listeners.
+	 * 
+	 * @param argKey
+	 * @param argListener
+	 * @param argInOrder
+	 *            if the dispatch thread waits for the listener
+	 */
+	public void addSwingEventListener(String argKey,
+			IEventListener argListener, boolean argInOrder) {
+		if (argListener == null) {
+			throw new RuntimeException("Listener cannot be null");
+		}
+		addEventListener(argKey, new SwingListener(argListener, argInOrder));
+	}
+
+	/**
+	 * Adds a listener for the given interned event key.
+	 * 
+	 * @param argKey
+	 * @param argListener
+	 * @see #addEventListener(String, IEventListener)
+	 */
+	public void addEventListener(EventKey argKey,
+			IEventListener argListener) {
+		addEventListener(argKey.name, argListener);
+	}
+
+	/**
+	 * Removes a listener from the given interned event key.
+	 * 
+	 * @param argKey
+	 * @param argListener
+	 * @return true if the listener was removed, and false if it wasn't there to
+	 *         begin with
+	 */
+	public boolean removeEventListener(EventKey argKey,
+			IEventListener argListener) {
+		return removeEventListener(argKey.name, argListener);
+	}
+
+	/**
+	 * Adds a listener for every event of the given class, including
+	 * subclasses, whatever its key. The type can also be an interface events
+	 * implement. Listeners of a type receive events after the listeners of
+	 * the event's key.
+	 * 
+	 * @param argType
+	 * @param argListener
+	 */
+	public void addEventListener(Class<?> argType,
+			IEventListener argListener) {
+		if (argType == null) {
+			throw new RuntimeException("Type cannot be null");
+		}
+
+		if (!listeners.addType(argType, argListener)) {
+			log.debug("We already have that listener here", argListener);
+		}
+	}
+
+	/**
+	 * Checks to see if the listener is listening to the given event type.
+	 * 
+	 * @param argType
+	 * @param argListener
+	 * @return
+	 */
+	public boolean isEventListener(Class<?> argType,
+			IEventListener argListener) {
+		if (argType == null) {
+			throw new RuntimeException("Type cannot be null");
+		}
+
+		return listeners.containsType(argType, argListener);
+	}
+
+	/**
+	 * Removes a listener from the given event type.
+	 * 
+	 * @param argType
+	 * @param argListener
+	 * @return true if the listener was removed, and false if it wasn't there to
+	 *         begin with
+	 * @see #addEventListener(Class, IEventListener)
+	 */
+	public boolean removeEventListener(Class<?> argType,
+			IEventListener argListener) {
+		if (argType == null) {
+			throw new RuntimeException("Type cannot be null");
+		}
+
+		return listeners.removeType(argType, argListener);
+	}
+
+	/**
+	 * Gets a copy of the listeners for the given event key.
+	 * 
+	 * @param argKey
+	 * @return
+	 */
+	public LinkedList<IEventListener> getListeners(String argKey) {
+		if (argKey == null) {
+			throw new RuntimeException("Key cannot be null");
+		}
+
+		IEventListener[] current = listeners.get(argKey);
+		if (current != null) {
+			return new LinkedList<IEventListener>(Arrays.asList(current));
+		} else {
+			return new LinkedList<IEventListener>();
+		}
+	}
+
+	/**
+	 * removes a listener from the given key. If the key is being dispatched
+	 * at the same time, the listener might still receive the current event.
+	 * 
+	 * @param argKey
+	 * @param argListener
+	 * @return true if the listener was removed, and false if it wasn't there to
+	 *         begin with
+	 */
+	public boolean removeEventListener(String argKey,
+			IEventListener argListener) {
+		if (argKey == null) {
+			throw new RuntimeException("Key cannot be null");
+		}
+
+		return listeners.remove(argKey, argListener);
+	}
+
+	/**
+	 * Adds an event to the dispatch queue of this bus. Events dispatched with
+	 * {@link MVCEvent#dispatch()} go to the default bus instead.
+	 * 
+	 * @param argEvent
+	 */
+	public void dispatchEvent(MVCEvent argEvent) {
+		checkNotShutDown();
+		boolean listened;
+		if (stickies.isSticky(argEvent.key)) {
+			// see addEventListener
+			synchronized (stickyLock) {
+				listened = listeners.hasListeners(argEvent);
+				if (!listened) {
+					// kept for listeners added later, even though nothing
+					// receives it now
+					stickies.record(argEvent);
+				}
+			}
+		} else {
+			listened = listeners.hasListeners(argEvent);
+		}
+		if (listened) {
+			if (!admit(argEvent)) {
+				return;
+			}
+			eventStarted(argEvent);
+			queueStarted(argEvent);
+		} else {
+			tryNoListenersMonitor(argEvent);
+			argEvent.dispatchSkipped();
+		}
+	}
+
+	/**
+	 * Adds an event to the dispatch queue of this bus, and returns a future
+	 * that is done once every listener has received it, including listeners
+	 * that split off or are {@link IBlockingEventListener}s. If the same
+	 * event is dispatched again before that, the future waits for those
+	 * dispatches as well.
+	 * 
+	 * @param argEvent
+	 * @return the future, which is cancelled if the event is dropped
+	 * @throws RuntimeException
+	 *             if the event is already being dispatched with a future
+	 * @see MVCEvent#dispatchAsync()
+	 */
+	public DispatchFuture<Void> dispatchAsync(MVCEvent argEvent) {
+		DispatchFuture<Void> future = new DispatchFuture<Void>();
+		argEvent.setFuture(future);
+		dispatchEvent(argEvent);
+		return future;
+	}
+
+	/**
+	 * Adds a request to the dispatch queue of this bus.
+	 * 
+	 * @param argRequest
+	 * @return a future that gives the response once all the listeners have
+	 *         received the request. The response is null if there are no
+	 *         listeners or none of them responded.
+	 * @throws RuntimeException
+	 *             if the request is already being dispatched with a future
+	 * @see RequestEvent#request()
+	 */
+	public <R> DispatchFuture<R> request(RequestEvent<R> argRequest) {
+		DispatchFuture<R> future = new DispatchFuture<R>();
+		argRequest.setFuture(future);
+		dispatchEvent(argRequest);
+		return future;
+	}
+
+	/**
+	 * Queues an event that's already been counted as started.
+	 */
+	void queueStarted(MVCEvent argEvent) {
+		argEvent.bus = this;
+		argEvent.queued();
+		DispatchShard shard = shardFor(argEvent.key);
+		if (coalesce(argEvent)) {
+			return;
+		}
+		if (!enqueue(shard, argEvent)) {
+			return;
+		}
+
+		if (!isShardRunning(shard)) {
+			startShard(shard);
+		}
+	}
+
+	private boolean admit(MVCEvent argEvent) {
+		if (operators.isEmpty()) {
+			return true;
+		}
+		DispatchOperator operator = operators.get(argEvent.key);
+		return operator == null || operator.admit(argEvent);
+	}
+
+	/**
+	 * Drops an event held back or refused by a {@link DispatchOperator}.
+	 * 
+	 * @param argEvent
+	 * @param argStarted
+	 *            if the event was already counted as started
+	 */
+	void suppress(MVCEvent argEvent, boolean argStarted) {
+		synchronized (monitorLock) {
+			if (monitor instanceof IExtendedEventMonitor) {
+				try {
+					((IExtendedEventMonitor) monitor).eventSuppressed(argEvent);
+				} catch (Exception e) {
+					log.error("Exception caught from monitor", e);
+				}
+			}
+		}
+		argEvent.dispatchDropped("it was suppressed");
+		if (argStarted) {
+			eventFinished(argEvent);
+		} else {
+			argEvent.dispatchSkipped();
+		}
+	}
+
+	/**
+	 * Debounces the key, so when events of the key are dispatched in quick
+	 * succession only the last one is dispatched, once none have been
+	 * dispatched for the quiet period. Replaces any throttle on the key.
+	 * Events dispatched with {@link #dispatchSync(MVCEvent)} aren't
+	 * debounced.
+	 * 
+	 * @param argKey
+	 * @param argQuietPeriod
+	 * @param argUnit
+	 * @see IExtendedEventMonitor#eventSuppressed(MVCEvent)
+	 */
+	public void setDebounce(String argKey, long argQuietPeriod,
+			TimeUnit argUnit) {
+		long quiet = argUnit.toNanos(argQuietPeriod);
+		if (quiet <= 0) {
+			throw new IllegalArgumentException("Quiet period must be positive");
+		}
+		operators.put(argKey, new Debouncer(this, timers, quiet));
+	}
+
+	/**
+	 * Throttles the key, so at most the given number of events of the key are
+	 * dispatched each interval, and the rest are suppressed. Replaces any
+	 * debounce on the key. Events dispatched with
+	 * {@link #dispatchSync(MVCEvent)} aren't throttled.
+	 * 
+	 * @param argKey
+	 * @param argMaxEvents
+	 * @param argInterval
+	 * @param argUnit
+	 * @see IExtendedEventMonitor#eventSuppressed(MVCEvent)
+	 */
+	public void setThrottle(String argKey, int argMaxEvents,
+			long argInterval, TimeUnit argUnit) {
+		long interval = argUnit.toNanos(argInterval);
+		if (argMaxEvents < 1 || interval <= 0) {
+			throw new IllegalArgumentException(
+					"Events and interval must be positive");
+		}
+		operators.put(argKey, new Throttler(this, argMaxEvents, interval));
+	}
+
+	/**
+	 * Removes the debounce or throttle of the key. A debounced event that's
+	 * still held is dispatched when its quiet period ends.
+	 * 
+	 * @param argKey
+	 */
+	public void clearRateLimit(String argKey) {
+		operators.remove(argKey);
+	}
+
+	/**
+	 * Dispatches the event after the delay. All delayed and periodic
+	 * dispatches share one timer thread, and can fire up to 10 milliseconds
+	 * late.
+	 * 
+	 * @param argEvent
+	 * @param argDelay
+	 * @param argUnit
+	 * @return the scheduled dispatch, which can be cancelled
+	 */
+	public IScheduledDispatch dispatchAfter(MVCEvent argEvent,
+			long argDelay, TimeUnit argUnit) {
+		if (argEvent == null) {
+			throw new NullPointerException("Event cannot be null");
+		}
+		return timers.schedule(argEvent, argEvent.key, argUnit
+				.toNanos(argDelay), 0);
+	}
+
+	/**
+	 * Dispatches a new {@link MVCEvent} of the key every period, starting a
+	 * period from now, until it's cancelled.
+	 * 
+	 * @param argKey
+	 * @param argPeriod
+	 * @param argUnit
+	 * @return the scheduled dispatch, which can be cancelled
+	 * @see #dispatchAfter(MVCEvent, long, TimeUnit)
+	 */
+	public IScheduledDispatch dispatchEvery(String argKey,
+			long argPeriod, TimeUnit argUnit) {
+		if (argKey == null) {
+			throw new NullPointerException("Key cannot be null");
+		}
+		long period = argUnit.toNanos(argPeriod);
+		if (period <= 0) {
+			throw new IllegalArgumentException("Period must be positive");
+		}
+		return timers.schedule(null, argKey, period, period);
+	}
+
+	/**
+	 * @return the number of delayed or periodic dispatches still waiting,
+	 *         counting each periodic dispatch once
+	 */
+	public long getScheduledDispatchCount() {
+		return timers.getPendingCount();
+	}
+
+	/**
+	 * Dispatches all the events, in order. Events for the same dispatch shard
+	 * are added to its queue as one batch, so this is much cheaper than
+	 * dispatching each event on its own. That's only when a full queue is
+	 * waited on for as long as it takes, the default. With any other
+	 * {@link OverflowPolicy} the events are added one at a time, so each one
+	 * that finds the queue full follows the policy.
+	 * 
+	 * @param argEvents
+	 * @see IBatchEventListener
+	 */
+	public void dispatchAll(Collection<? extends MVCEvent> argEvents) {
+		checkNotShutDown();
+		DispatchShard[] current = shards;
+		ArrayList<ArrayList<MVCEvent>> batches = new ArrayList<ArrayList<MVCEvent>>(
+				current.length);
+		for (int i = 0; i < current.length; i++) {
+			batches.add(null);
+		}
+		for (MVCEvent event : argEvents) {
+			if (!listeners.hasListeners(event)) {
+				tryNoListenersMonitor(event);
+				event.dispatchSkipped();
+				continue;
+			}
+			if (!admit(event)) {
+				continue;
+			}
+			event.bus = this;
+			event.queued();
+			int index = shardFor(event.key).index;
+			ArrayList<MVCEvent> batch = batches.get(index);
+			if (batch == null) {
+				batch = new ArrayList<MVCEvent>();
+				batches.set(index, batch);
+			}
+			eventStarted(event);
+			if (coalesce(event)) {
+				continue;
+			}
+			batch.add(event);
+		}
+		for (int i = 0; i < current.length; i++) {
+			ArrayList<MVCEvent> batch = batches.get(i);
+			if (batch != null) {
+				if (canWaitFor(current[i])
+						&& overflowPolicy == OverflowPolicy.BLOCK
+						&& overflowTimeoutNanos <= 0) {
+					current[i].queue.putAll(batch);
+				} else {
+					for (MVCEvent event : batch) {
+						enqueue(current[i], event);
+					}
+				}
+				if (!isShardRunning(current[i])) {
+					startShard(current[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the started event to the shard's queue, following the overflow
+	 * policy if it's full.
+	 * 
+	 * @return if the event was queued
+	 */
+	private boolean enqueue(DispatchShard argShard, MVCEvent argEvent) {
+		if (argShard.queue.offer(argEvent)) {
+			return true;
+		}
+		OverflowPolicy policy = overflowPolicy;
+		boolean canWait = canWaitFor(argShard);
+		if (policy == OverflowPolicy.BLOCK && !canWait) {
+			// waiting for the only thread that drains the queue would never
+			// end, so run it here instead
+			policy = OverflowPolicy.CALLER_RUNS;
+		}
+		switch (policy) {
+			case DROP_NEWEST :
+				return dropNewest(argEvent);
+			case DROP_OLDEST :
+				do {
+					MVCEvent oldest = argShard.queue.evictOldest();
+					if (oldest != null) {
+						oldest = coalescing.take(oldest);
+						tryOverflowMonitor(oldest, policy);
+						eventDropped(oldest, "the queue was full");
+					}
+				} while (!argShard.queue.offer(argEvent));
+				return true;
+			case CALLER_RUNS :
+				if (canDispatchSync(argEvent)) {
+					tryOverflowMonitor(argEvent, policy);
+					MVCEvent event = coalescing.take(argEvent);
+					dispatchSync(event);
+					eventFinished(event);
+					return false;
+				}
+				if (!canWait) {
+					return dropNewest(argEvent);
+				}
+				// too deep to run it here, so wait for room instead
+				break;
+			default :
+				break;
+		}
+		tryOverflowMonitor(argEvent, policy);
+		boolean queued;
+		try {
+			if (overflowTimeoutNanos <= 0) {
+				argShard.queue.put(argEvent);
+				queued = true;
+			} else {
+				queued = argShard.queue.offer(argEvent, overflowTimeoutNanos,
+						TimeUnit.NANOSECONDS);
+				if (!queued) {
+					log.warn("Timed out waiting for room in the event queue, dropping "
+							+ argEvent);
+				}
+			}
+		} catch (InterruptedException e) {
+			log.error("Interrupted while waiting for room in the event queue", e);
+			Thread.currentThread().interrupt();
+			queued = false;
+		}
+		if (!queued) {
+			eventDropped(coalescing.take(argEvent), "the queue was full");
+		}
+		return queued;
+	}
+
+	private boolean dropNewest(MVCEvent argEvent) {
+		tryOverflowMonitor(argEvent, OverflowPolicy.DROP_NEWEST);
+		eventDropped(coalescing.take(argEvent), "the queue was full");
+		return false;
+	}
+
+	/**
+	 * @return if the calling thread can wait for room in the shard's queue,
+	 *         which it can't when it's the thread that drains the queue
+	 */
+	private boolean canWaitFor(DispatchShard argShard) {
+		return argShard.mainThread != Thread.currentThread();
+	}
+
+	private static boolean canDispatchSync(MVCEvent argEvent) {
+		ArrayList<MVCEvent> dispatching = syncDispatching.get();
+		return dispatching.size() < MAX_SYNC_DEPTH
+				&& !dispatching.contains(argEvent);
+	}
+
+	/**
+	 * Sets what happens when an event is dispatched and its queue is full,
+	 * with {@link OverflowPolicy#BLOCK} waiting as long as it takes. Only
+	 * bounded queues fill up, see {@link #setQueueCapacity(int)}.
+	 * 
+	 * @param argPolicy
+	 */
+	public void setOverflowPolicy(OverflowPolicy argPolicy) {
+		setOverflowPolicy(argPolicy, 0, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Sets what happens when an event is dispatched and its queue is full.
+	 * The default is {@link OverflowPolicy#BLOCK} with no timeout. Each time
+	 * the queue is found full, the monitor is told with
+	 * {@link IExtendedEventMonitor#queueOverflowed(MVCEvent, OverflowPolicy)}.
+	 * {@link #dispatchAll(Collection)} follows the policy for each event too.
+	 * A listener dispatching to the queue of its own dispatch thread never
+	 * waits, as the room would never come, so the event is dispatched right
+	 * away like {@link OverflowPolicy#CALLER_RUNS}, or dropped if that's too
+	 * deep.
+	 * 
+	 * @param argPolicy
+	 * @param argTimeout
+	 *            how long {@link OverflowPolicy#BLOCK} waits before dropping
+	 *            the event, 0 to wait forever
+	 * @param argUnit
+	 */
+	public void setOverflowPolicy(OverflowPolicy argPolicy,
+			long argTimeout, TimeUnit argUnit) {
+		if (argPolicy == null) {
+			throw new NullPointerException("Policy cannot be null");
+		}
+		overflowTimeoutNanos = argUnit.toNanos(argTimeout);
+		overflowPolicy = argPolicy;
+	}
+
+	/**
+	 * @return what happens when an event is dispatched and its queue is full
+	 */
+	public OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+	/**
+	 * Gives each dispatch shard a {@link LinkedEventQueue} that holds at most
+	 * the given number of events. Like
+	 * {@link #setDispatchShards(int, IEventQueueFactory)}, this has to be done
+	 * before any events are dispatched, or after
+	 * {@link #stopDispatchThread(long)}.
+	 * 
+	 * @param argCapacity
+	 *            the most events each shard's queue holds
+	 * @see #setOverflowPolicy(OverflowPolicy, long, TimeUnit)
+	 */
+	public void setQueueCapacity(final int argCapacity) {
+		if (argCapacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		setDispatchShards(getDispatchShardCount(), new IEventQueueFactory() {
+			public IEventQueue createEventQueue(int argShard) {
+				return new LinkedEventQueue(argCapacity);
+			}
+		});
+	}
+
+	/**
+	 * Gives each dispatch shard a {@link PriorityLaneEventQueue} with its
+	 * lanes drained in strict priority order. Like
+	 * {@link #setDispatchShards(int, IEventQueueFactory)}, this has to be done
+	 * before any events are dispatched, or after
+	 * {@link #stopDispatchThread(long)}.
+	 * 
+	 * @param argLanes
+	 *            the number of lanes
+	 * @param argStarvationLimit
+	 *            how many events in a row can be taken from higher lanes
+	 *            while a lower lane is waiting, or 0 for no limit
+	 * @see #setPriority(String, int)
+	 * @see MVCEvent#setPriority(int)
+	 */
+	public void setPriorityLanes(final int argLanes,
+			final int argStarvationLimit) {
+		setDispatchShards(getDispatchShardCount(), new IEventQueueFactory() {
+			public IEventQueue createEventQueue(int argShard) {
+				return new PriorityLaneEventQueue(argLanes, argStarvationLimit);
+			}
+		});
+	}
+
+	/**
+	 * Gives each dispatch shard a {@link PriorityLaneEventQueue} with its
+	 * lanes drained in weighted order, so each lane gets its weight of events
+	 * dispatched in turn.
+	 * 
+	 * @param argWeights
+	 *            the weight of each lane, highest priority first
+	 * @see #setPriorityLanes(int, int)
+	 */
+	public void setWeightedPriorityLanes(final int[] argWeights) {
+		setDispatchShards(getDispatchShardCount(), new IEventQueueFactory() {
+			public IEventQueue createEventQueue(int argShard) {
+				return new PriorityLaneEventQueue(argWeights);
+			}
+		});
+	}
+
+	/**
+	 * Sets the priority of events of the given key that weren't given their
+	 * own priority.
+	 * 
+	 * @param argKey
+	 * @param argPriority
+	 *            the priority, lower numbers first, or -1 to go back to
+	 *            {@link MVCEvent#PRIORITY_NORMAL}
+	 * @see MVCEvent#setPriority(int)
+	 */
+	public void setPriority(String argKey, int argPriority) {
+		if (argPriority < 0) {
+			keyPriorities.remove(argKey);
+		} else {
+			keyPriorities.put(argKey, argPriority);
+		}
+	}
+
+	/**
+	 * @param argKey
+	 * @return the priority of events of the key
+	 * @see #setPriority(String, int)
+	 */
+	public int getPriority(String argKey) {
+		if (keyPriorities.isEmpty()) {
+			return MVCEvent.PRIORITY_NORMAL;
+		}
+		Integer priority = keyPriorities.get(argKey);
+		return priority == null ? MVCEvent.PRIORITY_NORMAL : priority;
+	}
+
+	/**
+	 * Gets the number of events waiting in each priority lane, added up
+	 * across the dispatch shards.
+	 * 
+	 * @return the depth of each lane, highest priority first, or an empty
+	 *         array if the queues don't have lanes
+	 * @see #setPriorityLanes(int, int)
+	 */
+	public int[] getLaneDepths() {
+		int[] total = new int[0];
+		for (DispatchShard shard : shards) {
+			if (shard.queue instanceof PriorityLaneEventQueue) {
+				int[] depths = ((PriorityLaneEventQueue) shard.queue)
+						.getLaneDepths();
+				if (depths.length > total.length) {
+					int[] grown = new int[depths.length];
+					System.arraycopy(total, 0, grown, 0, total.length);
+					total = grown;
+				}
+				for (int i = 0; i < depths.length; i++) {
+					total[i] += depths[i];
+				}
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Replaces the undelivered event of the same key, if the key coalesces.
+	 * The event has to already be counted as started.
+	 * 
+	 * @return true if an event was replaced, so the given event takes its
+	 *         place in the queue and doesn't need to be queued
+	 */
+	private boolean coalesce(MVCEvent argEvent) {
+		if (!coalescing.isCoalescing(argEvent.key)) {
+			return false;
+		}
+		MVCEvent replaced = coalescing.offer(argEvent);
+		if (replaced == null) {
+			return false;
+		}
+		tryCoalescedMonitor(replaced, argEvent);
+		eventDropped(replaced, "it was coalesced");
+		return true;
+	}
+
+	/**
+	 * Sets if events of the given key coalesce. When they do, dispatching an
+	 * event replaces the event of the same key that's still waiting in the
+	 * queue, so listeners only receive the newest one. Events that implement
+	 * {@link ICoalescable} only replace events of the same key and id. Events
+	 * dispatched with {@link #dispatchSync(MVCEvent)} are never coalesced.
+	 * 
+	 * @param argKey
+	 * @param argCoalescing
+	 * @see IExtendedEventMonitor#eventCoalesced(MVCEvent, MVCEvent)
+	 */
+	public void setCoalescing(String argKey, boolean argCoalescing) {
+		coalescing.setCoalescing(argKey, argCoalescing);
+	}
+
+	/**
+	 * @param argKey
+	 * @return if events of the key coalesce
+	 * @see #setCoalescing(String, boolean)
+	 */
+	public boolean isCoalescing(String argKey) {
+		return coalescing.isCoalescing(argKey);
+	}
+
+	/**
+	 * Sets the most events an {@link IBatchEventListener} receives at once.
+	 * Default is {@value #DEFAULT_MAX_BATCH_SIZE}.
+	 * 
+	 * @param argMaxBatchSize
+	 */
+	public void setMaxBatchSize(int argMaxBatchSize) {
+		if (argMaxBatchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be positive");
+		}
+		maxBatchSize = argMaxBatchSize;
+	}
+
+	/**
+	 * @return the most events an {@link IBatchEventListener} receives at once
+	 */
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * Dispatches the event to its listeners right away on the calling thread,
+	 * instead of adding it to the queue for the MVC thread. The monitor,
+	 * tracking and {@link MVCEvent#stopPropagation()} work just like they do
+	 * on the MVC thread, and {@link IBlockingEventListener}s are called on this
+	 * thread as well. Listeners can dispatch other events synchronously, but
+	 * dispatching the same event again while it is being dispatched throws an
+	 * exception. Past {@value #MAX_SYNC_DEPTH} nested synchronous dispatches,
+	 * events are added to the queue instead. Used by
+	 * {@link MVCEvent#dispatchNow()}.
+	 * 
+	 * @param argEvent
+	 * @throws RuntimeException
+	 *             if the event is already being dispatched synchronously on
+	 *             this thread
+	 */
+	public void dispatchSync(MVCEvent argEvent) {
+		ArrayList<MVCEvent> dispatching = syncDispatching.get();
+		for (int i = 0; i < dispatching.size(); i++) {
+			if (dispatching.get(i) == argEvent) {
+				throw new RuntimeException("Event " + argEvent
+						+ " is already being dispatched on this thread");
+			}
+		}
+		if (dispatching.size() >= MAX_SYNC_DEPTH) {
+			log.warn("Too many nested synchronous dispatches, queuing "
+					+ argEvent + " instead");
+			dispatchEvent(argEvent);
+			return;
+		}
+
+		IEventListener[] current;
+		boolean expired;
+		if (stickies.isSticky(argEvent.key)) {
+			// see addEventListener
+			synchronized (stickyLock) {
+				current = listeners.get(argEvent);
+				expired = current != null && argEvent.isExpired();
+				if (!expired) {
+					stickies.record(argEvent);
+				}
+			}
+		} else {
+			current = listeners.get(argEvent);
+			expired = current != null && argEvent.isExpired();
+		}
+		if (current == null) {
+			tryNoListenersMonitor(argEvent);
+			argEvent.dispatchSkipped();
+			return;
+		}
+		if (expired) {
+			eventStarted(argEvent);
+			expire(argEvent);
+			return;
+		}
+		dispatching.add(argEvent);
+		eventStarted(argEvent);
+		try {
+			FilterMemo memo = null;
+			for (int i = 0; i < current.length && argEvent.isPropagating(); i++) {
+				IEventListener listener = current[i];
+				if (listener instanceof FilteredListener) {
+					if (memo == null) {
+						memo = new FilterMemo();
+					}
+					FilteredListener filtered = (FilteredListener) listener;
+					if (!accepts(memo, filtered.filter, argEvent)) {
+						continue;
+					}
+					listener = filtered.listener;
+				}
+				if (listener instanceof WeakListener) {
+					listener = ((WeakListener) listener).get();
+					if (listener == null) {
+						continue;
+					}
+				}
+				if (listener instanceof SwingListener) {
+					invokeSwing(argEvent, (SwingListener) listener);
+					continue;
+				}
+				invokeListener(argEvent, listener);
+			}
+		} finally {
+			dispatching.remove(dispatching.size() - 1);
+			eventFinished(argEvent);
+		}
+	}
+
+	/**
+	 * Split off the current MVC thread, all queued events and future event
+	 * dispatches are handled by a new MVC thread, while this one runs to
+	 * completion. If the thread calling this is not the current core MVC
+	 * thread, then an exception is thrown. With more than one dispatch shard,
+	 * only the shard of the calling thread is handed over to the new thread.
+	 * 
+	 * @throws IllegalThreadException
+	 *             if the thread calling this is not a dispatch thread of this
+	 *             bus
+	 * @throws IncorrectThreadException
+	 *             if the MVC thread calling this is not the main thread, e.g.
+	 *             it has already split off.
+	 */
+	public void splitOff() throws IllegalThreadException,
+			IncorrectThreadException {
+		if (current() == this) {
+			DispatchThread thread = (DispatchThread) Thread.currentThread();
+			DispatchShard shard = thread.shard;
+			if (thread != shard.mainThread) {
+				log.error("Can't split off when this isn't the main thread");
+				throw new IncorrectThreadException();
+			}
+			splitOffPool.acquire();
+			if (!handOver(thread)) {
+				splitOffPool.release();
+				log.error("Can't split off when this isn't the main thread");
+				throw new IncorrectThreadException();
+			}
+		} else {
+			log.error("Can't split off, we're not in the MVC thread.");
+			throw new IllegalThreadException();
+		}
+	}
+
+	/**
+	 * Hands the shard of the thread over to another thread, so the thread
+	 * only finishes the listener it's calling. The split off has to be
+	 * reserved from the pool first.
+	 * 
+	 * @return false if the thread isn't the main thread of its shard
+	 */
+	private boolean handOver(DispatchThread argThread) {
+		DispatchShard shard = argThread.shard;
+		synchronized (shard.mainThreadLock) {
+			if (argThread != shard.mainThread) {
+				return false;
+			}
+			log.debug("Splitting off...");
+
+			DispatchThread old = argThread;
+			old.running = false;
+			old.handedOver = true;
+			// the event isn't finished until our listener is
+			if (old.invokingRun != null) {
+				for (MVCEvent event : old.invokingRun) {
+					eventStarted(event);
+				}
+			} else if (old.cursor != null) {
+				eventStarted(old.cursor.event);
+			}
+			int num = ++shard.threadCount;
+			DispatchThread next = splitOffPool.pollIdle();
+			if (next == null) {
+				next = new DispatchThread(shard, num, old.cursor);
+				splitOffPool.threadCreated();
+				shard.mainThread = next;
+				log.debug("Starting next MVC thread");
+				next.start();
+			} else {
+				shard.mainThread = next;
+				log.debug("Reusing MVC thread");
+				next.assign(shard, num, old.cursor);
+			}
+			old.cursor = null;
+			return true;
+		}
+	}
+
+	/**
+	 * Sets the maximum number of threads that can be split off and still
+	 * running their listener at the same time. When the maximum is reached,
+	 * {@link #splitOff()} waits until one of them finishes. The default is no
+	 * limit.
+	 * 
+	 * @param argMax
+	 */
+	public void setMaxSplitOffs(int argMax) {
+		if (argMax < 1) {
+			throw new IllegalArgumentException("Maximum must be positive");
+		}
+		splitOffPool.setMaxActive(argMax);
+	}
+
+	/**
+	 * @return the maximum number of concurrent split offs
+	 * @see #setMaxSplitOffs(int)
+	 */
+	public int getMaxSplitOffs() {
+		return splitOffPool.getMaxActive();
+	}
+
+	/**
+	 * Sets how many threads are kept waiting for the next
+	 * {@link #splitOff()} after they have finished their listener, and how
+	 * long they wait before finishing. Defaults to 16 threads and 60 seconds.
+	 * 
+	 * @param argMaxIdle
+	 * @param argIdleTimeout
+	 * @param argUnit
+	 */
+	public void setSplitOffPool(int argMaxIdle, long argIdleTimeout,
+			TimeUnit argUnit) {
+		if (argMaxIdle < 0) {
+			throw new IllegalArgumentException("Pool size cannot be negative");
+		}
+		splitOffPool.setMaxIdle(argMaxIdle);
+		splitOffPool.setIdleTimeoutMillis(argUnit.toMillis(argIdleTimeout));
+	}
+
+	/**
+	 * Starts a watchdog that checks on the listeners the dispatch threads are
+	 * calling, and tells the monitor, if it's an {@link IExtendedEventMonitor},
+	 * about each call that has taken longer than the budget with
+	 * {@link IExtendedEventMonitor#listenerStalled(MVCEvent, IEventListener, long, StackTraceElement[])},
+	 * along with the stack of the dispatch thread. The watchdog runs on its
+	 * own daemon thread about twice per budget, so a call is caught within one
+	 * and a half budgets even while timers are held up by a full queue, and
+	 * while it's on each listener call only costs the
+	 * dispatch thread a few volatile writes. Listeners called on the blocking
+	 * executor or the event dispatch thread aren't watched. Replaces any
+	 * watchdog already running.
+	 * 
+	 * @param argBudget
+	 *            how long a listener can take
+	 * @param argUnit
+	 * @param argSplitOff
+	 *            if the thread of a listener that's over budget is split off,
+	 *            just like the listener had called {@link #splitOff()}, so
+	 *            the rest of the queue keeps being dispatched. This only
+	 *            happens while there are fewer than
+	 *            {@link #getMaxSplitOffs()} threads split off.
+	 */
+	public void setWatchdog(long argBudget, TimeUnit argUnit,
+			boolean argSplitOff) {
+		long budget = argUnit.toNanos(argBudget);
+		if (budget <= 0) {
+			throw new IllegalArgumentException("Budget must be positive");
+		}
+		Watchdog next = new Watchdog(budget, argSplitOff);
+		Watchdog old = watchdog;
+		watchdog = next;
+		next.start();
+		if (old != null) {
+			LockSupport.unpark(old);
+		}
+	}
+
+	/**
+	 * Stops the watchdog.
+	 * 
+	 * @see #setWatchdog(long, TimeUnit, boolean)
+	 */
+	public void clearWatchdog() {
+		Watchdog old = watchdog;
+		watchdog = null;
+		if (old != null) {
+			LockSupport.unpark(old);
+		}
+	}
+
+	/**
+	 * Starts or stops recording latency histograms for each event key: how
+	 * long its events wait in the queue, and how long each type of listener
+	 * takes to receive them. Listeners of the same class share a histogram.
+	 * Recording is lock-free and doesn't allocate once a key and listener
+	 * have their histograms, and when it's off the only cost is stamping the
+	 * events with {@link MVCEvent#getQueuedNanos()} and
+	 * {@link MVCEvent#getDequeuedNanos()}. Stopping drops the histograms.
+	 * 
+	 * @param argTracking
+	 * @see #getQueueWaitHistogram(String)
+	 * @see #getServiceTimeHistogram(String, Class)
+	 */
+	public synchronized void setLatencyTracking(boolean argTracking) {
+		if (!argTracking) {
+			latency = null;
+		} else if (latency == null) {
+			latency = new LatencyStats();
+		}
+	}
+
+	/**
+	 * @return if latency histograms are being recorded
+	 * @see #setLatencyTracking(boolean)
+	 */
+	public boolean isLatencyTracking() {
+		return latency != null;
+	}
+
+	/**
+	 * @param argKey
+	 * @return how long the events of the key waited in the queue before
+	 *         their listeners were called, or null if none were recorded
+	 * @see #setLatencyTracking(boolean)
+	 */
+	public LatencyHistogram getQueueWaitHistogram(String argKey) {
+		LatencyStats stats = latency;
+		return stats == null ? null : stats.getQueueWait(argKey);
+	}
+
+	/**
+	 * @param argKey
+	 * @param argListenerType
+	 *            the class of the listener
+	 * @return how long listeners of the type took to receive the events of
+	 *         the key, or null if none were recorded
+	 * @see #setLatencyTracking(boolean)
+	 */
+	public LatencyHistogram getServiceTimeHistogram(String argKey,
+			Class<?> argListenerType) {
+		LatencyStats stats = latency;
+		return stats == null ? null : stats.getServiceTime(argKey,
+				argListenerType);
+	}
+
+	/**
+	 * @param argKey
+	 * @return the service time histograms of each type of listener that
+	 *         received events of the key
+	 * @see #getServiceTimeHistogram(String, Class)
+	 */
+	public Map<Class<?>, LatencyHistogram> getServiceTimeHistograms(
+			String argKey) {
+		LatencyStats stats = latency;
+		if (stats == null) {
+			return Collections.emptyMap();
+		}
+		return stats.getServiceTimes(argKey);
+	}
+
+	/**
+	 * @return the keys with latency histograms
+	 * @see #setLatencyTracking(boolean)
+	 */
+	public Set<String> getLatencyKeys() {
+		LatencyStats stats = latency;
+		if (stats == null) {
+			return Collections.emptySet();
+		}
+		return stats.getKeys();
+	}
+
+	/**
+	 * @return the number of times {@link #splitOff()} has been called
+	 *         successfully
+	 */
+	public long getSplitOffCount() {
+		return splitOffPool.getSplitOffs();
+	}
+
+	/**
+	 * @return the number of threads that have split off and are still running
+	 *         their listener
+	 */
+	public int getActiveSplitOffCount() {
+		return splitOffPool.getActive();
+	}
+
+	/**
+	 * @return the most threads that have been split off at the same time
+	 */
+	public int getPeakSplitOffCount() {
+		return splitOffPool.getPeakActive();
+	}
+
+	/**
+	 * @return the number of threads waiting in the pool for the next split off
+	 */
+	public int getIdleSplitOffThreadCount() {
+		return splitOffPool.getIdle();
+	}
+
+	/**
+	 * @return the number of new threads split offs have had to start, as
+	 *         opposed to reusing one from the pool
+	 */
+	public long getSplitOffThreadsCreated() {
+		return splitOffPool.getThreadsCreated();
+	}
+
+	/**
+	 * Wait for all remaining events to dispatch, including events with
+	 * listeners still running on split off threads.
+	 * 
+	 * @param timeoutMillis
+	 *            The maximum number of milliseconds to wait.
+	 * @see #awaitQuiescence(long, TimeUnit)
+	 */
+	public void completeRemainingEvents(long timeoutMillis) {
+		try {
+			quiescence.await(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Waits until no events are in flight: none are queued, none are being
+	 * dispatched, and no listener is still running on a split off thread or
+	 * the blocking executor.
+	 * 
+	 * @param argTimeout
+	 * @param argUnit
+	 * @return true if all events finished, false if the timeout passed first
+	 * @throws InterruptedException
+	 */
+	public boolean awaitQuiescence(long argTimeout, TimeUnit argUnit)
+			throws InterruptedException {
+		return quiescence.await(argTimeout, argUnit);
+	}
+
+	/**
+	 * Doesn't wait.
+	 * 
+	 * @return a future that is done the next time no events are in flight, or
+	 *         right away if none are now.
+	 * @see #awaitQuiescence(long, TimeUnit)
+	 */
+	public DispatchFuture<Void> awaitQuiescence() {
+		return quiescence.awaitFuture();
+	}
+
+	/**
+	 * @return the number of events queued or being dispatched, counting each
+	 *         listener still running on a split off thread or the blocking
+	 *         executor separately
+	 */
+	public long getInFlightEventCount() {
+		return quiescence.getInFlight();
+	}
+
+	/**
+	 * Stops the dispatch threads, dispatching any remaining events before
+	 * cleanly returning. Threads automatically get started when new events are
+	 * dispatched
+	 */
+	public void stopDispatchThread(long argTimeoutMillis) {
+		for (DispatchShard shard : shards) {
+			stopShard(shard, argTimeoutMillis);
+		}
+		retireIdleSplitOffs();
+	}
+
+	private void retireIdleSplitOffs() {
+		for (DispatchThread thread : splitOffPool.drainIdle()) {
+			thread.retired = true;
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Shuts the bus down for good. Delayed and periodic dispatches that
+	 * haven't fired yet are dropped, and so are debounced events still held
+	 * back. Each dispatch thread finishes the
+	 * listener it's calling and stops, and the events still queued behind it
+	 * are dropped, so their futures are cancelled and they no longer count
+	 * as in flight. The timer thread, the watchdog and the idle split off
+	 * threads finish as well, along with the blocking executor if it's the
+	 * default one. Nothing is left running that refers to the bus, so it can
+	 * be collected. Dispatching to the bus afterwards throws an exception.
+	 * 
+	 * @param argTimeoutMillis
+	 *            how long to wait for the timer thread and each dispatch
+	 *            thread to finish
+	 */
+	public void shutdown(long argTimeoutMillis) {
+		shutDown = true;
+		clearWatchdog();
+		// before the timers, so a debouncer doesn't schedule on a stopped
+		// timer
+		for (DispatchOperator operator : operators.values()) {
+			operator.shutdown();
+		}
+		timers.shutdown(argTimeoutMillis);
+		for (DispatchShard shard : shards) {
+			if (stopShard(shard, argTimeoutMillis)) {
+				dropRemaining(shard);
+			} else {
+				log.warn("Dispatch thread of " + name
+						+ " didn't stop in time, leaving its queued events");
+			}
+		}
+		retireIdleSplitOffs();
+		Executor executor = null;
+		synchronized (blockingExecutorLock) {
+			if (ownsBlockingExecutor) {
+				executor = blockingExecutor;
+				blockingExecutor = null;
+				ownsBlockingExecutor = false;
+			}
+		}
+		if (executor instanceof ExecutorService) {
+			((ExecutorService) executor).shutdown();
+		}
+		log.info(name + " shut down");
+	}
+
+	/**
+	 * @return if {@link #shutdown(long)} has been called
+	 */
+	public boolean isShutdown() {
+		return shutDown;
+	}
+
+	/**
+	 * Drops the events left in a stopped shard.
+	 */
+	private void dropRemaining(DispatchShard argShard) {
+		String reason = "the bus was shut down";
+		DispatchCursor suspended = argShard.suspended;
+		argShard.suspended = null;
+		if (suspended != null) {
+			for (MVCEvent event : suspended.unfinished()) {
+				eventDropped(event, reason);
+			}
+		}
+		MVCEvent pending = argShard.pending;
+		argShard.pending = null;
+		if (pending != null) {
+			eventDropped(pending, reason);
+		}
+		MVCEvent event;
+		while ((event = argShard.deadlines.poll()) != null) {
+			eventDropped(event, reason);
+		}
+		while ((event = argShard.queue.poll()) != null) {
+			eventDropped(coalescing.take(event), reason);
+		}
+	}
+
+	private void checkNotShutDown() {
+		if (shutDown) {
+			throw new RuntimeException("Bus " + name + " has been shut down");
+		}
+	}
+
+	/**
+	 * @return if any of the dispatch threads are running
+	 */
+	public boolean isDispatchThreadRunning() {
+		for (DispatchShard shard : shards) {
+			if (isShardRunning(shard)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Manually starts the dispatch threads.
+	 */
+	public void startDispatchThread() {
+		checkNotShutDown();
+		for (DispatchShard shard : shards) {
+			startShard(shard);
+		}
+	}
+
+	/**
+	 * @return true if the shard's main thread has finished
+	 */
+	private boolean stopShard(DispatchShard argShard, long argTimeoutMillis) {
+		synchronized (argShard.mainThreadLock) {
+			DispatchThread mainThread = argShard.mainThread;
+			if (mainThread == null) {
+				return true;
+			}
+			mainThread.running = false;
+			argShard.queue.wakeUp();
+			if (argTimeoutMillis > 0) {
+				try {
+					mainThread.join(argTimeoutMillis);
+				} catch (InterruptedException e) {
+				}
+				argShard.mainThread = null;
+			}
+			return !mainThread.isAlive();
+		}
+	}
+
+	private boolean isShardRunning(DispatchShard argShard) {
+		synchronized (argShard.mainThreadLock) {
+			DispatchThread mainThread = argShard.mainThread;
+			return mainThread != null
+					&& mainThread.getState() != Thread.State.TERMINATED
+					&& (mainThread.running || mainThread.getState() == Thread.State.RUNNABLE);
+		}
+	}
+
+	private void startShard(DispatchShard argShard) {
+		synchronized (argShard.mainThreadLock) {
+			if (argShard.mainThread == null
+					|| argShard.mainThread.getState() == Thread.State.TERMINATED) {
+				// a listener can still kill the thread with an Error
+				argShard.mainThread = new DispatchThread(argShard, argShard.threadCount);
+			}
+			DispatchThread mainThread = argShard.mainThread;
+			if (!mainThread.running) {
+				if (mainThread.getState() == Thread.State.NEW) {
+					mainThread.start();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets the executor that {@link IBlockingEventListener}s are called on.
+	 * By default this is {@link DispatchExecutors#newDefaultExecutor()}, which
+	 * uses a virtual thread for each call on JDKs that support them, and a
+	 * bounded pool of threads otherwise.
+	 * 
+	 * @param argExecutor
+	 */
+	public void setBlockingExecutor(Executor argExecutor) {
+		synchronized (blockingExecutorLock) {
+			blockingExecutor = argExecutor;
+			ownsBlockingExecutor = false;
+		}
+	}
+
+	/**
+	 * Gets the executor that {@link IBlockingEventListener}s are called on,
+	 * creating the default one if needed.
+	 * 
+	 * @return
+	 * @see #setBlockingExecutor(Executor)
+	 */
+	public Executor getBlockingExecutor() {
+		Executor executor = blockingExecutor;
+		if (executor == null) {
+			synchronized (blockingExecutorLock) {
+				if (blockingExecutor == null) {
+					blockingExecutor = DispatchExecutors.newDefaultExecutor();
+					ownsBlockingExecutor = true;
+				}
+				executor = blockingExecutor;
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Sets the event monitor of this bus, which is called before and after
+	 * each event is dispatched.
+	 * 
+	 * @param argMonitor
+	 * @see IGlobalEventMonitor
+	 */
+	public void setGlobalEventMonitor(IGlobalEventMonitor argMonitor) {
+		synchronized (monitorLock) {
+			monitor = argMonitor;
+		}
+	}
+
+	/**
+	 * Gets the global event monitor. Default is {@link WarningMonitor}.
+	 * 
+	 * @return
+	 * @see IGlobalEventMonitor
+	 */
+	public IGlobalEventMonitor getGlobalEventMonitor() {
+		synchronized (monitorLock) {
+			return monitor;
+		}
+	}
+
+	private volatile EventMonitor guiMonitor = null;
+
+	/**
+	 * Convenience method to construct and show an {@link EventMonitor}. To have
+	 * more control on how the {@link EventMonitor} is configured, you can just
+	 * create it yourself and use
+	 * {@link #setGlobalEventMonitor(IGlobalEventMonitor)} to have it be the
+	 * global event monitor.
+	 * 
+	 * @return the {@link EventMonitor}.
+	 */
+	public EventMonitor showEventMonitor() {
+		if (guiMonitor == null) {
+			synchronized (monitorLock) {
+				guiMonitor = new EventMonitor(monitor);
+				setGlobalEventMonitor(guiMonitor);
+			}
+		}
+		guiMonitor.setVisible(true);
+		return guiMonitor;
+	}
+
+	/**
+	 * Hides the event monitor, if you had used {@link #showEventMonitor()}.
+	 */
+	public void hideEventMonitor() {
+		if (guiMonitor != null) {
+			guiMonitor.setVisible(false);
+		}
+	}
+
+	/**
+	 * @return if the calling thread is the main dispatch thread of one of the
+	 *         shards of this bus
+	 */
+	public boolean isMainDispatchThread() {
+		if (current() != this) {
+			return false;
+		}
+		DispatchThread thread = (DispatchThread) Thread.currentThread();
+		return thread == thread.shard.mainThread;
+	}
+
+	/**
+	 * Drops the event as its deadline has passed.
+	 */
+	private void expire(MVCEvent argEvent) {
+		synchronized (monitorLock) {
+			if (monitor instanceof IExtendedEventMonitor) {
+				try {
+					((IExtendedEventMonitor) monitor).eventExpired(argEvent);
+				} catch (Exception e) {
+					log.error("Exception caught from monitor", e);
+				}
+			}
+		}
+		eventDropped(argEvent, "its deadline passed");
+	}
+
+	/**
+	 * Calls a Swing listener outside of a dispatch thread's drain cycle.
+	 */
+	private void invokeSwing(MVCEvent argEvent, SwingListener argListener) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			invokeListener(argEvent, argListener.listener);
+			return;
+		}
+		eventStarted(argEvent);
+		SwingBatch batch = new SwingBatch();
+		batch.add(argEvent, argListener.listener);
+		invokeSwingBatch(batch, argListener.inOrder);
+	}
+
+	/**
+	 * Hands the Swing listener calls to the event dispatch thread, which
+	 * makes them in order.
+	 * 
+	 * @param argWait
+	 *            if this waits for the calls to be made
+	 */
+	private void invokeSwingBatch(final SwingBatch argBatch, boolean argWait) {
+		Runnable calls = new Runnable() {
+			public void run() {
+				for (int i = 0; i < argBatch.size(); i++) {
+					MVCEvent event = argBatch.events.get(i);
+					try {
+						invokeListener(event, argBatch.listeners.get(i));
+					} finally {
+						eventFinished(event);
+					}
+				}
+			}
+		};
+		if (!argWait) {
+			SwingUtilities.invokeLater(calls);
+		} else if (SwingUtilities.isEventDispatchThread()) {
+			calls.run();
+		} else {
+			try {
+				SwingUtilities.invokeAndWait(calls);
+			} catch (InterruptedException e) {
+				// the calls are still made, we just don't wait for them
+				Thread.currentThread().interrupt();
+			} catch (InvocationTargetException e) {
+				log.error("Exception caught from Swing listeners", e.getCause());
+			}
+		}
+	}
+
+	private static boolean hasBatchListener(IEventListener[] argListeners) {
+		for (IEventListener listener : argListeners) {
+			if (unwrap(listener) instanceof IBatchEventListener) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the listener without its filter or weak reference, or null if
+	 *         it's been collected
+	 */
+	private static IEventListener unwrap(IEventListener argListener) {
+		IEventListener listener = argListener;
+		if (listener instanceof FilteredListener) {
+			listener = ((FilteredListener) listener).listener;
+		}
+		if (listener instanceof WeakListener) {
+			listener = ((WeakListener) listener).get();
+		}
+		return listener;
+	}
+
+	/**
+	 * Checks the filter, counting a filter that throws as not accepting the
+	 * event.
+	 */
+	private boolean accepts(FilterMemo argMemo, IEventFilter argFilter,
+			MVCEvent argEvent) {
+		try {
+			return argMemo.accepts(argFilter, argEvent);
+		} catch (Exception e) {
+			tryExceptionMonitor(argEvent, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Calls the listener with the event, along with the monitor and tracker.
+	 */
+	private void invokeListener(MVCEvent argEvent,
+			IEventListener argListener) {
+		tryPreMonitor(argEvent);
+		tryTrackEvent(argEvent);
+		LatencyStats stats = latency;
+		long start = stats == null ? 0 : System.nanoTime();
+		try {
+			if (!argListener.eventReceived(argEvent)) {
+				// the snapshot we're iterating isn't touched, so this
+				// is safe even if we've been split off
+				listeners.removeMatching(argEvent, argListener);
+			}
+		} catch (Exception e) {
+			argEvent.listenerFailed(e);
+			tryExceptionMonitor(argEvent, e);
+		}
+		if (stats != null) {
+			stats.serviceTime(argEvent.key, argListener.getClass(),
+					System.nanoTime() - start);
+		}
+		tryPostMonitor(argEvent);
+	}
+
+	/**
+	 * Calls the batch listener with the run of events. The monitor and
+	 * tracker still see each event.
+	 */
+	private void invokeBatchListener(List<MVCEvent> argRun,
+			IBatchEventListener argListener) {
+		for (MVCEvent event : argRun) {
+			tryPreMonitor(event);
+			tryTrackEvent(event);
+		}
+		LatencyStats stats = latency;
+		long start = stats == null ? 0 : System.nanoTime();
+		try {
+			if (!argListener.eventsReceived(argRun)) {
+				listeners.removeMatching(argRun.get(0), argListener);
+			}
+		} catch (Exception e) {
+			for (MVCEvent event : argRun) {
+				event.listenerFailed(e);
+			}
+			tryExceptionMonitor(argRun.get(0), e);
+		}
+		if (stats != null) {
+			// one call for the whole run
+			stats.serviceTime(argRun.get(0).key, argListener.getClass(),
+					System.nanoTime() - start);
+		}
+		for (MVCEvent event : argRun) {
+			tryPostMonitor(event);
+		}
+	}
+
+	private void invokeBlockingBatchListener(
+			final List<MVCEvent> argRun, final IBatchEventListener argListener) {
+		for (MVCEvent event : argRun) {
+			eventStarted(event);
+		}
+		Runnable call = new Runnable() {
+			public void run() {
+				try {
+					invokeBatchListener(argRun, argListener);
+				} finally {
+					for (MVCEvent event : argRun) {
+						eventFinished(event);
+					}
+				}
+			}
+		};
+		try {
+			getBlockingExecutor().execute(call);
+		} catch (RejectedExecutionException e) {
+			log.warn("Blocking executor rejected the listener, calling it on the MVC thread", e);
+			call.run();
+		}
+	}
+
+	private void tryStalledMonitor(MVCEvent argEvent,
+			IEventListener argListener, long argElapsedNanos,
+			StackTraceElement[] argStack) {
+		synchronized (monitorLock) {
+			if (monitor instanceof IExtendedEventMonitor) {
+				try {
+					((IExtendedEventMonitor) monitor).listenerStalled(argEvent,
+							argListener, argElapsedNanos, argStack);
+				} catch (Exception e) {
+					log.error("Exception caught from monitor", e);
+				}
+			}
+		}
+	}
+
+	private void tryExceptionMonitor(MVCEvent argEvent, Exception argException) {
+		synchronized (monitorLock) {
+			if (monitor != null) {
+				try {// why do I have to do this? monitors shouldn't
+						// throw
+						// exceptions
+					monitor.exceptionThrown(argEvent, argException);
+				} catch (Exception e2) {
+					log.error("Exception caught from event dispatch", argException);
+					log.error("Exception caught from monitor", e2);
+				}
+			} else {
+				log.error("Exception caught from event dispatch", argException);
+			}
+		}
+	}
+
+	private void invokeBlockingListener(final MVCEvent argEvent,
+			final IEventListener argListener) {
+		eventStarted(argEvent);
+		try {
+			getBlockingExecutor().execute(new Runnable() {
+				public void run() {
+					try {
+						invokeListener(argEvent, argListener);
+					} finally {
+						eventFinished(argEvent);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			log.warn("Blocking executor rejected the listener, calling it on the MVC thread", e);
+			try {
+				invokeListener(argEvent, argListener);
+			} finally {
+				eventFinished(argEvent);
+			}
+		}
+	}
+
+	private void tryTrackEvent(MVCEvent argEvent) {
+		if (argEvent instanceof ITrackable) {
+			ITrackable event = (ITrackable) argEvent;
+			if (event.getTrackingCategory() != null
+					&& event.getTrackingAction() != null) {
+				if (event instanceof ICustomTracker) {
+					((ICustomTracker) event).getCustomTracker().trackEvent(
+							event.getTrackingCategory(),
+							event.getTrackingAction(),
+							event.getTrackingLabel(), event.getTrackingValue());
+				} else if (tracker != null) {
+					synchronized (trackerLock) {
+						tracker.trackEvent(event.getTrackingCategory(),
+								event.getTrackingAction(),
+								event.getTrackingLabel(),
+								event.getTrackingValue());
+					}
+				} else {
+					log.warn(
+							"Event could not be tracked, as the tracker is null",
+							event);
+				}
+			}
+		}
+	}
+
+	void eventStarted(MVCEvent argEvent) {
+		quiescence.enter();
+		argEvent.dispatchStarted();
+	}
+
+	private void eventFinished(MVCEvent argEvent) {
+		argEvent.dispatchFinished();
+		quiescence.exit();
+	}
+
+	/**
+	 * Finishes an event that won't reach its listeners, so its future is
+	 * cancelled instead of done.
+	 */
+	void eventDropped(MVCEvent argEvent, String argReason) {
+		argEvent.dispatchDropped(argReason);
+		eventFinished(argEvent);
+	}
+
+	private void tryCoalescedMonitor(MVCEvent argReplaced,
+			MVCEvent argReplacement) {
+		synchronized (monitorLock) {
+			if (monitor instanceof IExtendedEventMonitor) {
+				try {
+					((IExtendedEventMonitor) monitor).eventCoalesced(argReplaced, argReplacement);
+				} catch (Exception e) {
+					log.error("Exception caught from monitor", e);
+				}
+			}
+		}
+	}
+
+	private void tryOverflowMonitor(MVCEvent argEvent,
+			OverflowPolicy argPolicy) {
+		synchronized (monitorLock) {
+			if (monitor instanceof IExtendedEventMonitor) {
+				try {
+					((IExtendedEventMonitor) monitor).queueOverflowed(argEvent, argPolicy);
+				} catch (Exception e) {
+					log.error("Exception caught from monitor", e);
+				}
+			}
+		}
+	}
+
+	private void tryNoListenersMonitor(MVCEvent argEvent) {
+		synchronized (monitorLock) {
+			if (monitor != null) {
+				try {
+					monitor.noListeners(argEvent);
+				} catch (Exception e) {
+					log.error("Exception caught from monitor", e);
+				}
+			}
+		}
+	}
+
+	private void tryPreMonitor(MVCEvent argEvent) {
+		if (monitor != null) {
+			synchronized (monitorLock) {
+				try {
+					monitor.beforeDispatch(argEvent);
+				} catch (Exception e) {
+					log.error("Exception caught from monitor", e);
+				}
+			}
+		}
+	}
+
+	private void tryPostMonitor(MVCEvent argEvent) {
+		synchronized (monitorLock) {
+			if (monitor != null) {
+				try {
+					monitor.afterDispatch(argEvent);
+				} catch (Exception e) {
+					log.error("Exception caught from monitor", e);
+				}
+			}
+		}
+	}
+
+	private static final int WATCH_IDLE = 0;
+	private static final int WATCH_RUNNING = 1;
+	private static final int WATCH_REPORTED = 2;
+	private static final int WATCH_HANDING = 3;
+
+	/**
+	 * Checks on the listeners the dispatch threads are calling until it's
+	 * replaced or cleared. It has its own thread rather than using the timer
+	 * thread, as timers dispatch events and can be held up by the very
+	 * listeners it's watching for.
+	 */
+	private class Watchdog extends Thread {
+		final long budgetNanos;
+		final long periodNanos;
+		final boolean splitOff;
+
+		Watchdog(long argBudgetNanos, boolean argSplitOff) {
+			super(name + " Watchdog");
+			setDaemon(true);
+			budgetNanos = argBudgetNanos;
+			periodNanos = Math.max(argBudgetNanos / 2,
+					TimerWheel.DEFAULT_TICK_NANOS);
+			splitOff = argSplitOff;
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				LockSupport.parkNanos(this, periodNanos);
+				if (watchdog != this) {
+					return;
+				}
+				DispatchThread[] current;
+				synchronized (threads) {
+					current = threads.toArray(new DispatchThread[threads.size()]);
+				}
+				long now = System.nanoTime();
+				for (DispatchThread thread : current) {
+					thread.checkStalled(now, this);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A thread dispatching the events of one shard of the bus.
+	 */
+	class DispatchThread extends MVC {
+
+		private volatile boolean running = false;
+		private volatile DispatchShard shard;
+		private volatile int threadCount;
+		// set when this thread has split off and should go back to the pool
+		private volatile boolean handedOver = false;
+		private volatile boolean assigned = false;
+		private volatile boolean retired = false;
+
+		private DispatchCursor cursor;
+		// the run of events a batch listener is being called with
+		private List<MVCEvent> invokingRun;
+
+		// the listener being called, for the watchdog
+		private final AtomicInteger watchState = new AtomicInteger(WATCH_IDLE);
+		private volatile MVCEvent watchedEvent;
+		private volatile IEventListener watchedListener;
+		private volatile long watchedSince;
+
+		private DispatchThread(DispatchShard argShard, int argNum) {
+			super(mvcThreadGroup, threadName(argShard, argNum));
+			shard = argShard;
+			threadCount = argNum;
+			threads.add(this);
+		}
+
+		private DispatchThread(DispatchShard argShard, int argNum, DispatchCursor argCursor) {
+			this(argShard, argNum);
+			cursor = argCursor;
+		}
+
+		/**
+		 * Hands a shard to a thread waiting in the split off pool.
+		 */
+		private void assign(DispatchShard argShard, int argNum,
+				DispatchCursor argCursor) {
+			shard = argShard;
+			threadCount = argNum;
+			cursor = argCursor;
+			setName(threadName(argShard, argNum));
+			running = true;
+			assigned = true;
+			LockSupport.unpark(this);
+		}
+
+		@Override
+		public void run() {
+			running = true;
+			log.info(name + " thread #" + threadCount + " starting up");
+			dispatchEvents();
+			while (handedOver && returnToPool()) {
+				log.debug(name + " thread #" + threadCount + " reused from the pool");
+				dispatchEvents();
+			}
+			threads.remove(this);
+		}
+
+		/**
+		 * Called after this thread has split off and finished its listener.
+		 * 
+		 * @return true if this thread was given a shard to dispatch, false if it
+		 *         should finish
+		 */
+		private boolean returnToPool() {
+			handedOver = false;
+			shard = null;
+			if (!splitOffPool.offerIdle(this)) {
+				return false;
+			}
+			long deadline = System.nanoTime()
+					+ TimeUnit.MILLISECONDS.toNanos(splitOffPool
+							.getIdleTimeoutMillis());
+			boolean timedOut = false;
+			while (!assigned) {
+				if (retired) {
+					return false;
+				}
+				if (timedOut) {
+					// already taken out of the pool, so we're about to be assigned
+					LockSupport.park(this);
+					continue;
+				}
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					if (splitOffPool.removeIdle(this)) {
+						return false;
+					}
+					timedOut = true;
+					continue;
+				}
+				LockSupport.parkNanos(this, remaining);
+			}
+			assigned = false;
+			return true;
+		}
+
+		private void dispatchEvents() {
+			while (running) {
+				DispatchCursor current = cursor;
+				if (current != null) {
+					if (current.hasNextListener()) {
+						// keep our own references, as splitting off hands the
+						// cursor over to the next thread
+						MVCEvent event = current.event;
+						IEventListener listener = current.nextListener();
+						int index = current.listenerIndex - 1;
+						IEventFilter filter = null;
+						if (listener instanceof FilteredListener) {
+							filter = ((FilteredListener) listener).filter;
+							listener = ((FilteredListener) listener).listener;
+						}
+						if (listener instanceof WeakListener) {
+							listener = ((WeakListener) listener).get();
+							if (listener == null) {
+								// removed once the queue is drained
+								continue;
+							}
+						}
+						if (listener instanceof IBatchEventListener
+								&& current.run != null) {
+							if (filter == null
+									|| accepts(current.getMemo(), filter, event)) {
+								current.collect(index);
+							}
+							if (current.isEndOfRun()) {
+								List<MVCEvent> run = current.takeBatch(index);
+								if (run != null) {
+									deliverBatch((IBatchEventListener) listener, run);
+								}
+							}
+							continue;
+						} else if (filter != null
+								&& !accepts(current.getMemo(), filter, event)) {
+							continue;
+						} else if (listener instanceof SwingListener) {
+							queueSwing(event, (SwingListener) listener);
+							continue;
+						} else if (listener instanceof IBlockingEventListener) {
+							invokeBlockingListener(event, listener);
+						} else {
+							watchStarted(event, listener);
+							invokeListener(event, listener);
+							watchFinished();
+						}
+						if (handedOver) {
+							// free up the split off before the event counts
+							// as finished
+							splitOffPool.release();
+							eventFinished(event);
+						}
+					} else if (current.isEndOfRun()) {
+						int index = current.nextUndelivered();
+						if (index != -1) {
+							// the last event was stopped before reaching it
+							List<MVCEvent> run = current.takeBatch(index);
+							IEventListener listener = unwrap(current.listeners[index]);
+							if (listener != null) {
+								deliverBatch((IBatchEventListener) listener, run);
+							}
+							continue;
+						}
+						cursor = null;
+						if (current.run != null) {
+							for (int i = 0; i < current.run.size() - 1; i++) {
+								if (current.isHeld(i)) {
+									eventFinished(current.run.get(i));
+								}
+							}
+						}
+						eventFinished(current.event);
+					} else {
+						MVCEvent finished = current.event;
+						int finishedIndex = current.runIndex;
+						current.nextEvent();
+						if (!current.isHeld(finishedIndex)) {
+							eventFinished(finished);
+						}
+					}
+				} else if (shard.suspended != null) {
+					cursor = shard.suspended;
+					shard.suspended = null;
+				} else {
+					// grab next event
+					try {
+						int purged = listeners.purgeCollected();
+						if (purged > 0) {
+							log.debug("Removed {} collected weak listeners", purged);
+						}
+						if (!shard.swing.isEmpty() && shard.pending == null
+								&& shard.deadlines.isEmpty() && shard.queue.isEmpty()) {
+							// the end of the drain cycle
+							flushSwing(false);
+						}
+						MVCEvent next = nextEvent();
+						if (next == null) {
+							continue;
+						}
+						if (next instanceof StickyReplayEvent) {
+							replay((StickyReplayEvent) next);
+						} else if (next.isExpired()) {
+							expire(next);
+						} else {
+							cursor = createCursor(next);
+						}
+					} catch (Exception e) {
+						log.error("Caught exception in dispatch thread", e);
+					}
+				}
+			}
+			if (!handedOver) {
+				flushSwing(false);
+			}
+			if (!handedOver && cursor != null) {
+				// stopped in the middle of an event, so the next thread can
+				// pick up from here
+				shard.suspended = cursor;
+				cursor = null;
+			}
+		}
+
+		/**
+		 * Replays the last event of a sticky key to a listener that was just
+		 * added, unless the listener has already received a newer one.
+		 */
+		private void replay(StickyReplayEvent argReplay) {
+			StickyCache.Entry sticky = stickies.get(argReplay.key);
+			IEventListener listener = argReplay.listener;
+			IEventFilter filter = null;
+			if (listener instanceof FilteredListener) {
+				filter = ((FilteredListener) listener).filter;
+				listener = ((FilteredListener) listener).listener;
+			}
+			if (listener instanceof WeakListener) {
+				listener = ((WeakListener) listener).get();
+			}
+			if (sticky != null && listener != null && sticky.sequence == argReplay.sequence
+					&& listeners.contains(argReplay.key, argReplay.listener)
+					&& (filter == null || accepts(new FilterMemo(), filter, sticky.event))) {
+				if (listener instanceof SwingListener) {
+					queueSwing(sticky.event, (SwingListener) listener);
+				} else if (listener instanceof IBlockingEventListener) {
+					invokeBlockingListener(sticky.event, listener);
+				} else {
+					watchStarted(sticky.event, listener);
+					invokeListener(sticky.event, listener);
+					watchFinished();
+				}
+				if (handedOver) {
+					splitOffPool.release();
+				}
+			}
+			eventFinished(argReplay);
+		}
+
+		/**
+		 * Calls the batch listener with the events of the run that reached
+		 * it.
+		 */
+		private void deliverBatch(IBatchEventListener argListener,
+				List<MVCEvent> argRun) {
+			invokingRun = argRun;
+			if (argListener instanceof IBlockingEventListener) {
+				invokeBlockingBatchListener(argRun, argListener);
+			} else {
+				watchStarted(argRun.get(0), argListener);
+				invokeBatchListener(argRun, argListener);
+				watchFinished();
+			}
+			invokingRun = null;
+			if (handedOver) {
+				splitOffPool.release();
+				for (MVCEvent event : argRun) {
+					eventFinished(event);
+				}
+			}
+		}
+
+		private void watchStarted(MVCEvent argEvent, IEventListener argListener) {
+			if (watchdog == null) {
+				return;
+			}
+			watchedEvent = argEvent;
+			watchedListener = argListener;
+			watchedSince = System.nanoTime();
+			watchState.set(WATCH_RUNNING);
+		}
+
+		private void watchFinished() {
+			while (true) {
+				int state = watchState.get();
+				if (state == WATCH_IDLE) {
+					return;
+				}
+				if (state == WATCH_HANDING) {
+					// the watchdog is handing our shard over
+					Thread.yield();
+					continue;
+				}
+				if (watchState.compareAndSet(state, WATCH_IDLE)) {
+					watchedEvent = null;
+					watchedListener = null;
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Called by the watchdog. Reports the listener being called if it's
+		 * over budget, and hands the shard over first if the watchdog splits
+		 * off.
+		 */
+		private void checkStalled(long argNow, Watchdog argWatchdog) {
+			if (watchState.get() != WATCH_RUNNING || handedOver) {
+				return;
+			}
+			long since = watchedSince;
+			long elapsed = argNow - since;
+			if (elapsed < argWatchdog.budgetNanos) {
+				return;
+			}
+			MVCEvent event = watchedEvent;
+			IEventListener listener = watchedListener;
+			StackTraceElement[] stack = getStackTrace();
+			int caught = argWatchdog.splitOff ? WATCH_HANDING : WATCH_REPORTED;
+			if (!watchState.compareAndSet(WATCH_RUNNING, caught)) {
+				return;
+			}
+			if (watchedSince != since) {
+				// finished and started on another listener in the meantime
+				watchState.compareAndSet(caught, WATCH_RUNNING);
+				return;
+			}
+			if (caught == WATCH_HANDING) {
+				if (splitOffPool.tryAcquire() && !handOver(this)) {
+					splitOffPool.release();
+				}
+				watchState.set(WATCH_REPORTED);
+			}
+			tryStalledMonitor(event, listener, elapsed, stack);
+		}
+
+		/**
+		 * Adds the call to the shard's batch of Swing listener calls. For a
+		 * listener called in order, the batch is run right away and waited
+		 * for.
+		 */
+		private void queueSwing(MVCEvent argEvent, SwingListener argListener) {
+			eventStarted(argEvent);
+			shard.swing.add(argEvent, argListener.listener);
+			if (argListener.inOrder || shard.swing.size() >= maxBatchSize) {
+				flushSwing(argListener.inOrder);
+			}
+		}
+
+		private void flushSwing(boolean argWait) {
+			SwingBatch batch = shard.swing;
+			if (!batch.isEmpty()) {
+				shard.swing = new SwingBatch();
+				invokeSwingBatch(batch, argWait);
+			}
+		}
+
+		/**
+		 * Takes the next event to dispatch. Events with deadlines are gathered
+		 * into the shard's heap as they come off the queue, and go first, earliest
+		 * deadline first.
+		 * 
+		 * @return the next event, or null if woken up with nothing to dispatch
+		 */
+		private MVCEvent nextEvent() throws InterruptedException {
+			DeadlineHeap deadlines = shard.deadlines;
+			MVCEvent next = shard.pending;
+			if (next != null) {
+				shard.pending = null;
+			} else if (deadlines.isEmpty()) {
+				next = shard.queue.take();
+			} else {
+				next = shard.queue.poll();
+			}
+			while (next != null) {
+				next = coalescing.take(next);
+				if (!next.hasDeadline()) {
+					break;
+				}
+				deadlines.add(next);
+				next = shard.queue.poll();
+			}
+			if (deadlines.isEmpty()) {
+				return next;
+			}
+			if (next != null) {
+				shard.pending = next;
+			}
+			return deadlines.poll();
+		}
+
+		/**
+		 * Gets the listeners for the event, and if any of them are batch
+		 * listeners, takes the events of the same key queued right after it.
+		 */
+		private DispatchCursor createCursor(MVCEvent argEvent) {
+			if (!stickies.isSticky(argEvent.key)) {
+				return collectRun(argEvent);
+			}
+			// recorded along with reading the listeners under the lock
+			// addEventListener looks up the sticky event with, so a listener
+			// added meanwhile is either in the cursor or has the last event
+			// of the run replayed
+			synchronized (stickyLock) {
+				return collectRun(argEvent);
+			}
+		}
+
+		private DispatchCursor collectRun(MVCEvent argEvent) {
+			stickies.record(argEvent);
+			dequeued(argEvent);
+			IEventListener[] current = listeners.get(argEvent);
+			if (current == null || !hasBatchListener(current)) {
+				return new DispatchCursor(argEvent, current, null);
+			}
+			ArrayList<MVCEvent> run = new ArrayList<MVCEvent>();
+			run.add(argEvent);
+			int max = maxBatchSize;
+			while (run.size() < max) {
+				MVCEvent following = shard.queue.poll();
+				if (following == null) {
+					break;
+				}
+				following = coalescing.take(following);
+				if (!following.key.equals(argEvent.key) || following.hasDeadline()
+						|| following instanceof StickyReplayEvent) {
+					shard.pending = following;
+					break;
+				}
+				run.add(following);
+				stickies.record(following);
+				dequeued(following);
+			}
+			return new DispatchCursor(argEvent, current, Collections
+					.unmodifiableList(run));
+		}
+
+		private void dequeued(MVCEvent argEvent) {
+			long wait = argEvent.dequeued();
+			LatencyStats stats = latency;
+			if (stats != null) {
+				stats.queueWait(argEvent.key, wait);
+			}
+		}
+
+		EventBus getBus() {
+			return EventBus.this;
+		}
+	}
+}
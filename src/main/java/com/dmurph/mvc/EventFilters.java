@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:21:40 AM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+/**
+ * Common {@link IEventFilter}s. Filters made with the same arguments are
+ * equal, so they're checked once per event for all the listeners using them.
+ * 
+ * @author Daniel Murphy
+ */
+public final class EventFilters {
+
+	private EventFilters() {}
+
+	/**
+	 * @param argType
+	 * @return a filter that accepts events that are instances of the type
+	 */
+	public static IEventFilter instanceOf(Class<?> argType) {
+		return new InstanceOf(argType, false);
+	}
+
+	/**
+	 * @param argType
+	 * @return a filter that accepts {@link ObjectEvent}s whose value is an
+	 *         instance of the type
+	 */
+	public static IEventFilter valueInstanceOf(Class<?> argType) {
+		return new InstanceOf(argType, true);
+	}
+
+	private static class InstanceOf implements IEventFilter {
+		private final Class<?> type;
+		private final boolean value;
+
+		InstanceOf(Class<?> argType, boolean argValue) {
+			if (argType == null) {
+				throw new NullPointerException("Type cannot be null");
+			}
+			type = argType;
+			value = argValue;
+		}
+
+		public boolean accept(MVCEvent argEvent) {
+			if (!value) {
+				return type.isInstance(argEvent);
+			}
+			return argEvent instanceof ObjectEvent<?>
+					&& type.isInstance(((ObjectEvent<?>) argEvent).getValue());
+		}
+
+		@Override
+		public boolean equals(Object argOther) {
+			if (!(argOther instanceof InstanceOf)) {
+				return false;
+			}
+			InstanceOf other = (InstanceOf) argOther;
+			return type == other.type && value == other.value;
+		}
+
+		@Override
+		public int hashCode() {
+			return type.hashCode() * 2 + (value ? 1 : 0);
+		}
+	}
+}
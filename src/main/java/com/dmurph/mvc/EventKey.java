@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 9:10:25 AM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An interned event key. Each key name is given a small id the first time
+ * it's used, counting up from 0, and {@link MVC} routes events through an
+ * array indexed by that id instead of hashing the name. Keys are never
+ * forgotten, so don't make keys out of unbounded values.
+ * 
+ * @author Daniel Murphy
+ */
+public final class EventKey {
+
+	private static final ConcurrentHashMap<String, EventKey> keys = new ConcurrentHashMap<String, EventKey>();
+	private static int nextId = 0;
+
+	public final String name;
+	public final int id;
+
+	private EventKey(String argName, int argId) {
+		name = argName;
+		id = argId;
+	}
+
+	/**
+	 * Gets the key of the given name, interning it if this is the first time
+	 * it's been used.
+	 * 
+	 * @param argName
+	 * @return
+	 */
+	public static EventKey of(String argName) {
+		EventKey key = keys.get(argName);
+		if (key == null) {
+			// locked so the ids stay dense
+			synchronized (keys) {
+				key = keys.get(argName);
+				if (key == null) {
+					key = new EventKey(argName, nextId++);
+					keys.put(argName, key);
+				}
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * @param argName
+	 * @return the key of the given name, or null if it was never interned
+	 */
+	public static EventKey find(String argName) {
+		return keys.get(argName);
+	}
+
+	/**
+	 * @return the number of keys interned so far
+	 */
+	public static int getKeyCount() {
+		synchronized (keys) {
+			return nextId;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
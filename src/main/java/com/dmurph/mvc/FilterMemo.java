@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:38:55 AM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+/**
+ * Remembers what each filter said about one event, so equal filters on
+ * different listeners are only checked once. Events rarely see more than a
+ * few distinct filters, so it's a small array.
+ * 
+ * @author Daniel Murphy
+ */
+class FilterMemo {
+
+	private IEventFilter[] filters = new IEventFilter[4];
+	private boolean[] results = new boolean[4];
+	private int size = 0;
+
+	public boolean accepts(IEventFilter argFilter, MVCEvent argEvent) {
+		for (int i = 0; i < size; i++) {
+			if (filters[i] == argFilter || filters[i].equals(argFilter)) {
+				return results[i];
+			}
+		}
+		boolean result = argFilter.accept(argEvent);
+		if (size == filters.length) {
+			IEventFilter[] grownFilters = new IEventFilter[size * 2];
+			boolean[] grownResults = new boolean[size * 2];
+			System.arraycopy(filters, 0, grownFilters, 0, size);
+			System.arraycopy(results, 0, grownResults, 0, size);
+			filters = grownFilters;
+			results = grownResults;
+		}
+		filters[size] = argFilter;
+		results[size] = result;
+		size++;
+		return result;
+	}
+
+	/**
+	 * Forgets the results, for the next event.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			filters[i] = null;
+		}
+		size = 0;
+	}
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 3:05:14 AM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.List;
+
+/**
+ * A listener that can receive a run of events at once. When the next event
+ * in the queue has a batch listener, {@link MVC} also takes the events queued
+ * right after it that have the same key, up to
+ * {@link MVC#getMaxBatchSize()}. Other listeners of the key still receive
+ * each event on its own, in order, and the batch listener receives the events
+ * that reached it in one call of {@link #eventsReceived(List)} once the last
+ * one of the run reaches it, or is stopped before it. Events whose propagation was stopped by a
+ * listener ahead of it are left out.
+ * {@link #eventReceived(MVCEvent)} is still called for events dispatched with
+ * {@link MVC#dispatchSync(MVCEvent)}.
+ * 
+ * @author Daniel Murphy
+ * @see MVC#dispatchAll(java.util.Collection)
+ */
+public interface IBatchEventListener extends IEventListener {
+
+	/**
+	 * Called with a run of consecutive events of the key this object is
+	 * listening to, oldest first.
+	 * 
+	 * @param argEvents
+	 *            the events dispatched, not to be modified
+	 * @return if the listener should keep listening
+	 */
+	public boolean eventsReceived(final List<MVCEvent> argEvents);
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 9:03:27 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.concurrent.Executor;
+
+/**
+ * A listener that might block, say on I/O. Instead of being called on the
+ * {@link MVC} thread, it is called on the executor from
+ * {@link MVC#setBlockingExecutor(Executor)}, and the MVC thread carries on
+ * with the next listener straight away, just as if the listener had called
+ * {@link MVC#splitOff()} first. Because of that,
+ * {@link MVCEvent#stopPropagation()} has no effect when called from this
+ * listener, and events can be received out of order.
+ * 
+ * @author Daniel Murphy
+ */
+public interface IBlockingEventListener extends IEventListener {
+
+}
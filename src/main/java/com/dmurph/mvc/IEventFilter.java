@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:15:07 AM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+/**
+ * Decides if a listener added with
+ * {@link MVC#addEventListener(String, IEventFilter, IEventListener)} should
+ * receive an event, so the listener is never called with events it doesn't
+ * care about. Filters that are equal are only checked once per event, so
+ * listeners that filter the same way should use equal filters, like the ones
+ * from {@link EventFilters}.
+ * 
+ * @author Daniel Murphy
+ */
+public interface IEventFilter {
+
+	/**
+	 * Called on the dispatch thread, so it should be quick and not have side
+	 * effects.
+	 * 
+	 * @param argEvent
+	 * @return if the listener should receive the event
+	 */
+	public boolean accept(MVCEvent argEvent);
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 2:12:40 AM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+/**
+ * A {@link IGlobalEventMonitor} that is also told about events that don't
+ * reach their listeners, as they're coalesced, dropped from a full queue,
+ * expired or suppressed, and about listeners that stall a dispatch thread.
+ * The bus checks if its monitor implements this, so monitors written
+ * against {@link IGlobalEventMonitor} alone keep working.
+ * @author Daniel Murphy
+ */
+public interface IExtendedEventMonitor extends IGlobalEventMonitor {
+	
+	/**
+	 * Called when an event of a coalescing key replaces one that was still
+	 * waiting to be dispatched.  The replaced event is never dispatched.
+	 * @param argReplaced the event that won't be dispatched
+	 * @param argReplacement the newer event dispatched in its place
+	 * @see MVC#setCoalescing(String, boolean)
+	 */
+	public void eventCoalesced(MVCEvent argReplaced, MVCEvent argReplacement);
+	
+	/**
+	 * Called when an event is dispatched and the queue is full, before the
+	 * overflow policy is carried out.
+	 * @param argEvent the event dispatched, or for {@link OverflowPolicy#DROP_OLDEST}
+	 * the queued event being dropped to make room
+	 * @param argPolicy the policy being followed
+	 * @see MVC#setOverflowPolicy(OverflowPolicy, long, java.util.concurrent.TimeUnit)
+	 */
+	public void queueOverflowed(MVCEvent argEvent, OverflowPolicy argPolicy);
+	
+	/**
+	 * Called when an event's deadline passed before it reached its listeners,
+	 * so it's dropped.  Like {@link #noListeners(MVCEvent)},
+	 * {@link #afterDispatch(MVCEvent)} and {@link #beforeDispatch(MVCEvent)}
+	 * are never called with this event.
+	 * @param argEvent the expired event
+	 * @see MVCEvent#setDeadline(long, java.util.concurrent.TimeUnit)
+	 */
+	public void eventExpired(MVCEvent argEvent);
+	
+	/**
+	 * Called when an event is suppressed by the debounce or throttle of its
+	 * key, so it's never dispatched.
+	 * @param argEvent the suppressed event
+	 * @see MVC#setDebounce(String, long, java.util.concurrent.TimeUnit)
+	 * @see MVC#setThrottle(String, int, long, java.util.concurrent.TimeUnit)
+	 */
+	public void eventSuppressed(MVCEvent argEvent);
+	
+	/**
+	 * Called by the watchdog when a listener has been running on a dispatch
+	 * thread for longer than the budget, once for each call that does.  It's
+	 * called from the timer thread while the listener is still running.
+	 * @param argEvent the event the listener is receiving
+	 * @param argListener the listener
+	 * @param argElapsedNanos how long the listener has been running
+	 * @param argStack the stack of the dispatch thread when it was caught
+	 * @see MVC#setWatchdog(long, java.util.concurrent.TimeUnit, boolean)
+	 */
+	public void listenerStalled(MVCEvent argEvent, IEventListener argListener,
+			long argElapsedNanos, StackTraceElement[] argStack);
+}
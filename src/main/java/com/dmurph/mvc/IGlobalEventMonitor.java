@@ -26,6 +26,8 @@ package com.dmurph.mvc;
 
 /**
  * Interface to monitor all messages dispatched from {@link MVC}.
+ * Monitors that also implement {@link IExtendedEventMonitor} are told
+ * about events dropped or held up on the way to their listeners.
  * @author Daniel Murphy
  */
 public interface IGlobalEventMonitor {
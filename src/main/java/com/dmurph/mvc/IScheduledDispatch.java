@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 3:20:44 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+/**
+ * A delayed or periodic dispatch, from {@link MVC#dispatchAfter} or
+ * {@link MVC#dispatchEvery}.
+ * 
+ * @author Daniel Murphy
+ */
+public interface IScheduledDispatch {
+
+	/**
+	 * Cancels the dispatch, or for a periodic dispatch, all dispatches still
+	 * to come.
+	 * 
+	 * @return false if it was already cancelled, or already dispatched
+	 */
+	public boolean cancel();
+
+	/**
+	 * @return if {@link #cancel()} was called before the dispatch
+	 */
+	public boolean isCancelled();
+
+	/**
+	 * @return if the event was dispatched. Periodic dispatches are never done
+	 *         until they're cancelled.
+	 */
+	public boolean isDone();
+}
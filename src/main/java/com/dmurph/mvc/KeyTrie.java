@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 7:12:36 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Trie of key patterns by segment, where segments are separated by dots. A
+ * <code>*</code> segment matches exactly one segment, and a
+ * <code>**</code> segment matches any number of segments, including none, so
+ * <code>order.*</code> matches <code>order.created</code>, and
+ * <code>order.**</code> matches <code>order</code>,
+ * <code>order.created</code> and <code>order.updated.price</code>. Not
+ * thread safe.
+ * 
+ * @author Daniel Murphy
+ */
+class KeyTrie {
+
+	private static final String ANY = "*";
+	private static final String ANY_DEPTH = "**";
+
+	private final Node root = new Node();
+
+	/**
+	 * @param argKey
+	 * @return if the key has a wildcard segment
+	 */
+	public static boolean isPattern(String argKey) {
+		if (argKey.indexOf('*') == -1) {
+			return false;
+		}
+		for (String segment : split(argKey)) {
+			if (ANY.equals(segment) || ANY_DEPTH.equals(segment)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String[] split(String argKey) {
+		return argKey.split("\\.", -1);
+	}
+
+	public boolean add(String argPattern, IEventListener argListener) {
+		Node node = root;
+		for (String segment : split(argPattern)) {
+			node = node.child(segment, true);
+		}
+		if (node.listeners != null
+				&& ListenerRegistry.indexOf(node.listeners, argListener) != -1) {
+			return false;
+		}
+		node.add(argListener);
+		return true;
+	}
+
+	public boolean remove(String argPattern, IEventListener argListener) {
+		Node node = find(argPattern);
+		return node != null && node.remove(argListener);
+	}
+
+	/**
+	 * @return the listeners of the pattern itself, or null
+	 */
+	public IEventListener[] get(String argPattern) {
+		Node node = find(argPattern);
+		return node == null ? null : node.listeners;
+	}
+
+	private Node find(String argPattern) {
+		Node node = root;
+		for (String segment : split(argPattern)) {
+			node = node.child(segment, false);
+			if (node == null) {
+				return null;
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * Adds the listeners of every pattern the key matches, more literal
+	 * patterns first.
+	 */
+	public void match(String argKey, List<IEventListener> argMatched) {
+		match(root, split(argKey), 0, argMatched);
+	}
+
+	/**
+	 * Removes the listener from every pattern the key matches.
+	 * 
+	 * @return how many patterns it was removed from
+	 */
+	public int removeMatching(String argKey, IEventListener argListener) {
+		return removeMatching(root, split(argKey), 0, argListener);
+	}
+
+	private void match(Node argNode, String[] argSegments, int argIndex,
+			List<IEventListener> argMatched) {
+		if (argIndex == argSegments.length) {
+			addAll(argNode.listeners, argMatched);
+		} else {
+			if (argNode.children != null) {
+				Node child = argNode.children.get(argSegments[argIndex]);
+				if (child != null) {
+					match(child, argSegments, argIndex + 1, argMatched);
+				}
+			}
+			if (argNode.any != null) {
+				match(argNode.any, argSegments, argIndex + 1, argMatched);
+			}
+		}
+		if (argNode.anyDepth != null) {
+			for (int i = argIndex; i <= argSegments.length; i++) {
+				match(argNode.anyDepth, argSegments, i, argMatched);
+			}
+		}
+	}
+
+	private int removeMatching(Node argNode, String[] argSegments,
+			int argIndex, IEventListener argListener) {
+		int removed = 0;
+		if (argIndex == argSegments.length) {
+			if (argNode != root && argNode.remove(argListener)) {
+				removed++;
+			}
+		} else {
+			if (argNode.children != null) {
+				Node child = argNode.children.get(argSegments[argIndex]);
+				if (child != null) {
+					removed += removeMatching(child, argSegments, argIndex + 1,
+							argListener);
+				}
+			}
+			if (argNode.any != null) {
+				removed += removeMatching(argNode.any, argSegments,
+						argIndex + 1, argListener);
+			}
+		}
+		if (argNode.anyDepth != null) {
+			for (int i = argIndex; i <= argSegments.length; i++) {
+				removed += removeMatching(argNode.anyDepth, argSegments, i,
+						argListener);
+			}
+		}
+		return removed;
+	}
+
+	private static void addAll(IEventListener[] argListeners,
+			List<IEventListener> argMatched) {
+		if (argListeners == null) {
+			return;
+		}
+		for (IEventListener listener : argListeners) {
+			if (!argMatched.contains(listener)) {
+				argMatched.add(listener);
+			}
+		}
+	}
+
+	private static class Node {
+		HashMap<String, Node> children;
+		Node any;
+		Node anyDepth;
+		IEventListener[] listeners;
+
+		Node child(String argSegment, boolean argCreate) {
+			if (ANY.equals(argSegment)) {
+				if (any == null && argCreate) {
+					any = new Node();
+				}
+				return any;
+			}
+			if (ANY_DEPTH.equals(argSegment)) {
+				if (anyDepth == null && argCreate) {
+					anyDepth = new Node();
+				}
+				return anyDepth;
+			}
+			Node child = children == null ? null : children.get(argSegment);
+			if (child == null && argCreate) {
+				if (children == null) {
+					children = new HashMap<String, Node>();
+				}
+				child = new Node();
+				children.put(argSegment, child);
+			}
+			return child;
+		}
+
+		void add(IEventListener argListener) {
+			if (listeners == null) {
+				listeners = new IEventListener[] { argListener };
+				return;
+			}
+			IEventListener[] next = new IEventListener[listeners.length + 1];
+			System.arraycopy(listeners, 0, next, 0, listeners.length);
+			next[listeners.length] = argListener;
+			listeners = next;
+		}
+
+		boolean remove(IEventListener argListener) {
+			if (listeners == null) {
+				return false;
+			}
+			int index = ListenerRegistry.indexOf(listeners, argListener);
+			if (index == -1) {
+				return false;
+			}
+			if (listeners.length == 1) {
+				listeners = null;
+				return true;
+			}
+			IEventListener[] next = new IEventListener[listeners.length - 1];
+			System.arraycopy(listeners, 0, next, 0, index);
+			System.arraycopy(listeners, index + 1, next, index, next.length
+					- index);
+			listeners = next;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 4:12:48 PM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Distribution of latencies, in nanoseconds, with log-bucketed counts like
+ * HdrHistogram. Values under 16 have a bucket each, and every power of two
+ * above that is split into 16 buckets, so a value is only ever off by about
+ * 6%. Recording takes a few atomic increments, never locks or allocates, and
+ * can be done from any number of threads at once. Reading while values are
+ * being recorded gives a close, but not exact, picture.
+ * 
+ * @author Daniel Murphy
+ * @see EventBus#setLatencyTracking(boolean)
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BITS = 4;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	// the exact buckets, then 16 for each power of two up to 2^62
+	private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a latency. Negative values are recorded as zero.
+	 * 
+	 * @param argNanos
+	 */
+	public void record(long argNanos) {
+		long value = argNanos < 0 ? 0 : argNanos;
+		counts.incrementAndGet(indexOf(value));
+		count.incrementAndGet();
+		total.addAndGet(value);
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * @return the number of values recorded
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return the largest value recorded, exactly, in nanoseconds
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return the mean of the values recorded, in nanoseconds
+	 */
+	public double getMean() {
+		long recorded = count.get();
+		return recorded == 0 ? 0 : (double) total.get() / recorded;
+	}
+
+	/**
+	 * @param argPercentile
+	 *            from 0 to 100, like 99.9 for the 99.9th percentile
+	 * @return the value at or below which the percentile of recorded values
+	 *         are, in nanoseconds, or 0 if nothing was recorded. It's the
+	 *         highest value of its bucket, but never more than the max.
+	 */
+	public long getValueAtPercentile(double argPercentile) {
+		if (argPercentile < 0 || argPercentile > 100) {
+			throw new IllegalArgumentException("Percentile must be from 0 to 100");
+		}
+		long recorded = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			recorded += counts.get(i);
+		}
+		if (recorded == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(argPercentile / 100 * recorded));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(highestValueAt(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * @param argPercentile
+	 * @param argUnit
+	 * @return the value at the percentile, in the unit
+	 * @see #getValueAtPercentile(double)
+	 */
+	public long getValueAtPercentile(double argPercentile, TimeUnit argUnit) {
+		return argUnit.convert(getValueAtPercentile(argPercentile),
+				TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Clears the recorded values. Values recorded at the same time may be
+	 * partly kept.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		count.set(0);
+		total.set(0);
+		max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + getCount() + ", p50=" + micros(getValueAtPercentile(50))
+				+ ", p99=" + micros(getValueAtPercentile(99)) + ", p999="
+				+ micros(getValueAtPercentile(99.9)) + ", max=" + micros(getMax());
+	}
+
+	private static String micros(long argNanos) {
+		return (argNanos / 1000) + "us";
+	}
+
+	static int indexOf(long argValue) {
+		if (argValue < SUB_COUNT) {
+			return (int) argValue;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(argValue) - SUB_BITS;
+		return ((shift + 1) << SUB_BITS)
+				+ (int) ((argValue >>> shift) - SUB_COUNT);
+	}
+
+	static long highestValueAt(int argIndex) {
+		if (argIndex < SUB_COUNT) {
+			return argIndex;
+		}
+		int shift = (argIndex >>> SUB_BITS) - 1;
+		long mantissa = SUB_COUNT + (argIndex & (SUB_COUNT - 1));
+		return ((mantissa + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 4:31:09 PM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The latency histograms of a bus, by event key. Each key has the time its
+ * events waited in the queue, and the time each type of listener took to
+ * receive them. Listeners are told apart by their class, so a histogram
+ * never keeps a listener from being collected. Once a key or listener has a
+ * histogram, recording never allocates.
+ * 
+ * @author Daniel Murphy
+ */
+class LatencyStats {
+
+	private final ConcurrentHashMap<String, KeyLatency> keys = new ConcurrentHashMap<String, KeyLatency>();
+
+	public void queueWait(String argKey, long argNanos) {
+		forKey(argKey).queueWait.record(argNanos);
+	}
+
+	public void serviceTime(String argKey, Class<?> argType, long argNanos) {
+		ConcurrentHashMap<Class<?>, LatencyHistogram> service = forKey(argKey).service;
+		LatencyHistogram histogram = service.get(argType);
+		if (histogram == null) {
+			histogram = new LatencyHistogram();
+			LatencyHistogram raced = service.putIfAbsent(argType, histogram);
+			if (raced != null) {
+				histogram = raced;
+			}
+		}
+		histogram.record(argNanos);
+	}
+
+	public LatencyHistogram getQueueWait(String argKey) {
+		KeyLatency key = keys.get(argKey);
+		return key == null ? null : key.queueWait;
+	}
+
+	public LatencyHistogram getServiceTime(String argKey, Class<?> argType) {
+		KeyLatency key = keys.get(argKey);
+		return key == null ? null : key.service.get(argType);
+	}
+
+	public Map<Class<?>, LatencyHistogram> getServiceTimes(String argKey) {
+		KeyLatency key = keys.get(argKey);
+		if (key == null) {
+			return Collections.emptyMap();
+		}
+		return Collections.unmodifiableMap(key.service);
+	}
+
+	public Set<String> getKeys() {
+		return Collections.unmodifiableSet(keys.keySet());
+	}
+
+	private KeyLatency forKey(String argKey) {
+		KeyLatency key = keys.get(argKey);
+		if (key == null) {
+			key = new KeyLatency();
+			KeyLatency raced = keys.putIfAbsent(argKey, key);
+			if (raced != null) {
+				key = raced;
+			}
+		}
+		return key;
+	}
+
+	private static class KeyLatency {
+		final LatencyHistogram queueWait = new LatencyHistogram();
+		final ConcurrentHashMap<Class<?>, LatencyHistogram> service = new ConcurrentHashMap<Class<?>, LatencyHistogram>();
+	}
+}
@@ -0,0 +1,449 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 6:14:32 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maps each event key to an immutable array of its listeners. Registering or
+ * removing a listener copies the array and swaps it in with a
+ * compare-and-swap, so looking up and iterating the listeners for a key never
+ * takes a lock, and an array handed out is never changed. The arrays are kept
+ * in a {@link RoutingTable} indexed by {@link EventKey#id}, so an event that
+ * knows its key is routed without hashing the name.
+ * <p>
+ * Keys with a <code>*</code> or <code>**</code> segment are patterns, and
+ * are kept in a {@link KeyTrie}. Once there are patterns, the listeners of a
+ * key are the key's own listeners followed by the listeners of every pattern
+ * it matches. That array is cached in a second {@link RoutingTable} along
+ * with the key's own listeners it was made from, so a key is still routed by
+ * id, and changing one key's listeners only resolves that key again. Changing
+ * a pattern bumps a version, so every array from before the change is
+ * resolved again the next time it's asked for. Keys that were never
+ * registered have no id, so theirs are cached by name. Those without any
+ * listeners aren't cached, and that cache is cleared when it reaches
+ * {@link #MAX_RESOLVED} keys, so ad-hoc keys can't grow it without bound.
+ * <p>
+ * Listeners can also be registered for an event type, see
+ * {@link TypeListenerRegistry}, and they follow the listeners of the key.
+ * The merged array is cached per event class and key along with the two
+ * arrays it was made from. Both are replaced whenever their listeners
+ * change, so a cached merge is only used while they're the same arrays.
+ * <p>
+ * Weak listeners are registered like any other, wrapped in a
+ * {@link WeakListener}. When one is collected it's put on a queue, and
+ * {@link #purgeCollected()} removes everything on the queue at once, so the
+ * arrays don't have to be scanned for them.
+ * 
+ * @author Daniel Murphy
+ */
+class ListenerRegistry {
+
+	private static final IEventListener[] NONE = new IEventListener[0];
+	/**
+	 * Most keys whose resolved listeners are cached.
+	 */
+	static final int MAX_RESOLVED = 4096;
+
+	private final RoutingTable<IEventListener[]> routes = new RoutingTable<IEventListener[]>();
+	private final KeyTrie patterns = new KeyTrie();
+	private final RoutingTable<Resolved> resolved = new RoutingTable<Resolved>();
+	private final ConcurrentHashMap<String, Resolved> unregistered = new ConcurrentHashMap<String, Resolved>();
+	private final AtomicLong version = new AtomicLong();
+	private volatile int patternCount = 0;
+	private final TypeListenerRegistry types = new TypeListenerRegistry();
+	private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Merged>> merged = new ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Merged>>();
+	private final ReferenceQueue<IEventListener> collected = new ReferenceQueue<IEventListener>();
+
+	/**
+	 * @param argKey
+	 * @return the current listeners for the key, or null if there are none.
+	 *         Do not modify the array.
+	 */
+	public IEventListener[] get(String argKey) {
+		if (patternCount == 0) {
+			return exact(argKey);
+		}
+		if (KeyTrie.isPattern(argKey)) {
+			synchronized (patterns) {
+				return patterns.get(argKey);
+			}
+		}
+		EventKey key = EventKey.find(argKey);
+		if (key != null) {
+			return resolved(key);
+		}
+		// never registered, so only patterns can match it
+		long current = version.get();
+		Resolved cached = unregistered.get(argKey);
+		if (cached == null || cached.version != current) {
+			IEventListener[] all = resolve(argKey, null);
+			if (all.length == 0) {
+				if (cached != null) {
+					unregistered.remove(argKey);
+				}
+				return null;
+			}
+			if (cached == null && unregistered.size() >= MAX_RESOLVED) {
+				unregistered.clear();
+			}
+			cached = new Resolved(current, null, all);
+			unregistered.put(argKey, cached);
+		}
+		return cached.listeners;
+	}
+
+	private IEventListener[] resolved(EventKey argKey) {
+		IEventListener[] own = routes.get(argKey.id);
+		long current = version.get();
+		Resolved cached = resolved.get(argKey.id);
+		if (cached == null || cached.version != current || cached.own != own) {
+			IEventListener[] all = resolve(argKey.name, own);
+			cached = new Resolved(current, own, all.length == 0 ? null : all);
+			resolved.set(argKey.id, cached);
+		}
+		return cached.listeners;
+	}
+
+	private IEventListener[] resolve(String argKey, IEventListener[] argOwn) {
+		ArrayList<IEventListener> matched = new ArrayList<IEventListener>();
+		synchronized (patterns) {
+			patterns.match(argKey, matched);
+		}
+		if (matched.isEmpty()) {
+			return argOwn == null ? NONE : argOwn;
+		}
+		ArrayList<IEventListener> all = new ArrayList<IEventListener>();
+		if (argOwn != null) {
+			for (IEventListener listener : argOwn) {
+				all.add(listener);
+			}
+		}
+		for (IEventListener listener : matched) {
+			if (!all.contains(listener)) {
+				all.add(listener);
+			}
+		}
+		return all.toArray(new IEventListener[all.size()]);
+	}
+
+	/**
+	 * @param argEvent
+	 * @return the listeners of the event's key followed by the listeners of
+	 *         its type, or null if there are none. Do not modify the array.
+	 */
+	public IEventListener[] get(MVCEvent argEvent) {
+		IEventListener[] byKey;
+		EventKey key = argEvent.getEventKey();
+		if (patternCount == 0) {
+			byKey = key == null ? null : routes.get(key.id);
+		} else if (key != null) {
+			byKey = resolved(key);
+		} else {
+			byKey = get(argEvent.key);
+		}
+		if (types.isEmpty()) {
+			return byKey;
+		}
+		IEventListener[] byType = types.get(argEvent.getClass());
+		if (byType == null) {
+			return byKey;
+		}
+		if (byKey == null) {
+			return byType;
+		}
+		ConcurrentHashMap<String, Merged> byClass = merged.get(argEvent.getClass());
+		if (byClass == null) {
+			byClass = new ConcurrentHashMap<String, Merged>();
+			ConcurrentHashMap<String, Merged> raced = merged.putIfAbsent(
+					argEvent.getClass(), byClass);
+			if (raced != null) {
+				byClass = raced;
+			}
+		}
+		Merged cached = byClass.get(argEvent.key);
+		if (cached == null || cached.byKey != byKey || cached.byType != byType) {
+			if (cached == null && byClass.size() >= MAX_RESOLVED) {
+				byClass.clear();
+			}
+			cached = new Merged(byKey, byType, merge(byKey, byType));
+			byClass.put(argEvent.key, cached);
+		}
+		return cached.listeners;
+	}
+
+	private static IEventListener[] merge(IEventListener[] argByKey,
+			IEventListener[] argByType) {
+		ArrayList<IEventListener> all = new ArrayList<IEventListener>(
+				argByKey.length + argByType.length);
+		for (IEventListener listener : argByKey) {
+			all.add(listener);
+		}
+		for (IEventListener listener : argByType) {
+			if (indexOf(argByKey, listener) == -1) {
+				all.add(listener);
+			}
+		}
+		return all.toArray(new IEventListener[all.size()]);
+	}
+
+	public boolean hasListeners(MVCEvent argEvent) {
+		if (patternCount == 0 && types.isEmpty()) {
+			EventKey key = argEvent.getEventKey();
+			return key != null && routes.get(key.id) != null;
+		}
+		return get(argEvent) != null;
+	}
+
+	private IEventListener[] exact(String argKey) {
+		EventKey key = EventKey.find(argKey);
+		return key == null ? null : routes.get(key.id);
+	}
+
+	public boolean addType(Class<?> argType, IEventListener argListener) {
+		if (!types.add(argType, argListener)) {
+			return false;
+		}
+		merged.clear();
+		return true;
+	}
+
+	public boolean removeType(Class<?> argType, IEventListener argListener) {
+		if (!types.remove(argType, argListener)) {
+			return false;
+		}
+		merged.clear();
+		return true;
+	}
+
+	public boolean containsType(Class<?> argType, IEventListener argListener) {
+		return types.contains(argType, argListener);
+	}
+
+	public boolean hasListeners(String argKey) {
+		if (patternCount == 0) {
+			return exact(argKey) != null;
+		}
+		return get(argKey) != null;
+	}
+
+	public boolean contains(String argKey, IEventListener argListener) {
+		IEventListener[] current;
+		if (KeyTrie.isPattern(argKey)) {
+			synchronized (patterns) {
+				current = patterns.get(argKey);
+			}
+		} else {
+			current = exact(argKey);
+		}
+		return current != null && indexOf(current, argListener) != -1;
+	}
+
+	/**
+	 * Adds the listener to the end of the key's listeners.
+	 * 
+	 * @param argKey
+	 * @param argListener
+	 * @return false if the listener was already listening to the key
+	 */
+	public boolean add(String argKey, IEventListener argListener) {
+		if (KeyTrie.isPattern(argKey)) {
+			synchronized (patterns) {
+				if (!patterns.add(argKey, argListener)) {
+					return false;
+				}
+				patternCount++;
+				patternsChanged();
+			}
+			return true;
+		}
+		int id = EventKey.of(argKey).id;
+		while (true) {
+			IEventListener[] current = routes.get(id);
+			if (current == null) {
+				if (routes.compareAndSet(id, null, new IEventListener[] { argListener })) {
+					return true;
+				}
+				continue;
+			}
+			if (indexOf(current, argListener) != -1) {
+				return false;
+			}
+			IEventListener[] next = new IEventListener[current.length + 1];
+			System.arraycopy(current, 0, next, 0, current.length);
+			next[current.length] = argListener;
+			if (routes.compareAndSet(id, current, next)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Removes the listener from the key, dropping the key when it has no
+	 * listeners left.
+	 * 
+	 * @param argKey
+	 * @param argListener
+	 * @return false if the listener wasn't listening to the key
+	 */
+	public boolean remove(String argKey, IEventListener argListener) {
+		if (KeyTrie.isPattern(argKey)) {
+			synchronized (patterns) {
+				if (!patterns.remove(argKey, argListener)) {
+					return false;
+				}
+				patternCount--;
+				patternsChanged();
+			}
+			return true;
+		}
+		EventKey key = EventKey.find(argKey);
+		if (key == null) {
+			return false;
+		}
+		while (true) {
+			IEventListener[] current = routes.get(key.id);
+			if (current == null) {
+				return false;
+			}
+			int index = indexOf(current, argListener);
+			if (index == -1) {
+				return false;
+			}
+			if (current.length == 1) {
+				if (routes.compareAndSet(key.id, current, null)) {
+					return true;
+				}
+				continue;
+			}
+			IEventListener[] next = new IEventListener[current.length - 1];
+			System.arraycopy(current, 0, next, 0, index);
+			System.arraycopy(current, index + 1, next, index, next.length - index);
+			if (routes.compareAndSet(key.id, current, next)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Stops the listener from receiving events like this one, whether it
+	 * listens to the key itself, to patterns that match it or to the event's
+	 * type. Used when a listener asks to stop listening.
+	 * 
+	 * @param argEvent
+	 * @param argListener
+	 */
+	public void removeMatching(MVCEvent argEvent, IEventListener argListener) {
+		if (types.removeMatching(argEvent.getClass(), argListener)) {
+			merged.clear();
+		}
+		remove(argEvent.key, argListener);
+		if (patternCount == 0) {
+			return;
+		}
+		synchronized (patterns) {
+			int removed = patterns.removeMatching(argEvent.key, argListener);
+			if (removed > 0) {
+				patternCount -= removed;
+				patternsChanged();
+			}
+		}
+	}
+
+	/**
+	 * @param argKey
+	 * @param argListener
+	 * @return a listener for the key that only weakly references the given
+	 *         one, to be added with {@link #add(String, IEventListener)}
+	 */
+	public IEventListener weak(String argKey, IEventListener argListener) {
+		purgeCollected();
+		return new WeakListener(argKey, argListener, collected);
+	}
+
+	/**
+	 * Removes the weak listeners that were collected since the last purge.
+	 * Cheap when there are none, so the dispatcher calls it before each
+	 * event.
+	 * 
+	 * @return how many were removed
+	 */
+	public int purgeCollected() {
+		int purged = 0;
+		Reference<? extends IEventListener> ref;
+		while ((ref = collected.poll()) != null) {
+			WeakListener listener = (WeakListener) ref;
+			if (remove(listener.key, listener)) {
+				purged++;
+			}
+		}
+		return purged;
+	}
+
+	private void patternsChanged() {
+		version.incrementAndGet();
+		// patterns can match any key, so these are stale anyway
+		unregistered.clear();
+	}
+
+	private static class Resolved {
+		final long version;
+		final IEventListener[] own;
+		final IEventListener[] listeners;
+
+		Resolved(long argVersion, IEventListener[] argOwn,
+				IEventListener[] argListeners) {
+			version = argVersion;
+			own = argOwn;
+			listeners = argListeners;
+		}
+	}
+
+	private static class Merged {
+		final IEventListener[] byKey;
+		final IEventListener[] byType;
+		final IEventListener[] listeners;
+
+		Merged(IEventListener[] argByKey, IEventListener[] argByType,
+				IEventListener[] argListeners) {
+			byKey = argByKey;
+			byType = argByType;
+			listeners = argListeners;
+		}
+	}
+
+	static int indexOf(IEventListener[] argListeners, IEventListener argListener) {
+		for (int i = 0; i < argListeners.length; i++) {
+			if (argListeners[i] == argListener || argListeners[i].equals(argListener)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
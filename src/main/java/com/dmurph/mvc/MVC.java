@@ -24,19 +24,19 @@
  */
 package com.dmurph.mvc;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Collection;
 import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import com.dmurph.mvc.monitor.EventMonitor;
-import com.dmurph.mvc.monitor.LoggingMonitor;
 import com.dmurph.mvc.monitor.WarningMonitor;
+import com.dmurph.mvc.queue.IEventQueue;
+import com.dmurph.mvc.queue.IEventQueueFactory;
+import com.dmurph.mvc.queue.LinkedEventQueue;
+import com.dmurph.mvc.queue.PriorityLaneEventQueue;
 import com.dmurph.mvc.tracking.ICustomTracker;
 import com.dmurph.mvc.tracking.ITrackable;
 import com.dmurph.tracking.JGoogleAnalyticsTracker;
@@ -51,96 +51,152 @@ import com.dmurph.tracking.JGoogleAnalyticsTracker;
  * {@link ITrackable#getTrackingCategory()} or
  * {@link ITrackable#getTrackingAction()} returns <code>null</code>, then it
  * will be ignored.
+ * <p>
+ * These methods all use the default {@link EventBus}, see
+ * {@link #getDefaultBus()}. Parts of an application that shouldn't share a
+ * queue and threads with the rest can each create their own bus.
+ * <p>
+ * The dispatch threads of every bus are still instances of this class, so
+ * <code>Thread.currentThread() instanceof MVC</code> tells if a listener is
+ * being called on a dispatch thread, though {@link #isMainMVCThread()} is
+ * the way to check for the default bus.
  * 
  * @author Daniel Murphy
  */
 public class MVC extends Thread {
 
-	private static final Logger log = LoggerFactory.getLogger(MVC.class);
-
-	private static final ThreadGroup mvcThreadGroup = new ThreadGroup(
-			"MVC Thread Group");
-	private static final ArrayList<MVC> mvcThreads = new ArrayList<MVC>();
-	private static final HashMap<String, List<IEventListener>> listeners = new HashMap<String, List<IEventListener>>();
-	private static final Queue<MVCEvent> eventQueue = new LinkedList<MVCEvent>();
-
-	private static final Object trackerLock = new Object();
-	private volatile static JGoogleAnalyticsTracker tracker = null;
-	private static final Object monitorLock = new Object();
-	private volatile static IGlobalEventMonitor monitor = new LoggingMonitor();
-	private static final Object mainThreadLock = new Object();
-	private volatile static MVC mainThread;
-	private volatile static String currKey = null;
+	private static final EventBus defaultBus = new EventBus("MVC");
 
-	private volatile boolean running = false;
-	private final int threadCount;
+	/**
+	 * Default for {@link #setMaxBatchSize(int)}.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = EventBus.DEFAULT_MAX_BATCH_SIZE;
 
-	private Iterator<IEventListener> currEventList;
-	private MVCEvent currEvent;
+	/**
+	 * Maximum nested {@link #dispatchSync(MVCEvent)} calls on one thread.
+	 */
+	public static final int MAX_SYNC_DEPTH = EventBus.MAX_SYNC_DEPTH;
 
-	private MVC(int argNum) {
-		super(mvcThreadGroup, "MVC Thread #" + argNum);
-		threadCount = argNum;
-		mvcThreads.add(this);
+	/**
+	 * Only {@link EventBus} creates dispatch threads.
+	 */
+	MVC(ThreadGroup argGroup, String argName) {
+		super(argGroup, argName);
 	}
 
-	private MVC(int argNum, Iterator<IEventListener> currEventList,
-			MVCEvent currEvent) {
-		this(argNum);
-		this.currEvent = currEvent;
-		this.currEventList = currEventList;
+	/**
+	 * @return the bus that the methods of this class and
+	 *         {@link MVCEvent#dispatch()} use
+	 */
+	public static EventBus getDefaultBus() {
+		return defaultBus;
 	}
 
 	public static void setTracker(JGoogleAnalyticsTracker argTracker) {
-		synchronized (trackerLock) {
-			tracker = argTracker;
-		}
+		defaultBus.setTracker(argTracker);
 	}
 
 	public static JGoogleAnalyticsTracker getTracker() {
-		return tracker;
+		return defaultBus.getTracker();
 	}
 
 	/**
-	 * Adds a listener for the given event key. If the listener is already
-	 * listening to that key, then nothing is done. On the rare occurrence that
-	 * the key is being dispatched at the same time by the mvc thread, this call
-	 * will wait till all the events of that key are dispatched before adding
-	 * and returning. If that happens and the thead making this call is also the
-	 * mvc thread, (a listener for a key adds another listener for the same
-	 * key), then a runtime exception is thrown.
+	 * Sets the queue that holds events waiting to be dispatched.
 	 * 
-	 * @param argKey
-	 * @param argListener
+	 * @see EventBus#setEventQueue(IEventQueue)
+	 */
+	public static void setEventQueue(final IEventQueue argQueue) {
+		defaultBus.setEventQueue(argQueue);
+	}
+
+	/**
+	 * Gets the queue that holds events waiting to be dispatched.
+	 * 
+	 * @see EventBus#getEventQueue()
+	 */
+	public static IEventQueue getEventQueue() {
+		return defaultBus.getEventQueue();
+	}
+
+	/**
+	 * Same as {@link #setDispatchShards(int, IEventQueueFactory)}, with each
+	 * shard using a {@link LinkedEventQueue}.
+	 * 
+	 * @param argCount
+	 */
+	public static void setDispatchShards(int argCount) {
+		defaultBus.setDispatchShards(argCount);
+	}
+
+	/**
+	 * Sets the number of dispatch threads.
+	 * 
+	 * @see EventBus#setDispatchShards(int, IEventQueueFactory)
+	 */
+	public static void setDispatchShards(int argCount,
+			IEventQueueFactory argFactory) {
+		defaultBus.setDispatchShards(argCount, argFactory);
+	}
+
+	/**
+	 * @return the number of dispatch shards
+	 * @see #setDispatchShards(int, IEventQueueFactory)
+	 */
+	public static int getDispatchShardCount() {
+		return defaultBus.getDispatchShardCount();
+	}
+
+	/**
+	 * Adds a listener for the given event key.
+	 * 
+	 * @see EventBus#addEventListener(String, IEventListener)
 	 */
 	public static void addEventListener(String argKey,
 			IEventListener argListener) {
-		if (argKey == null) {
-			throw new RuntimeException("Key cannot be null");
-		}
-
-		synchronized (listeners) {
-			synchronized (mainThreadLock) {
-				if (argKey.equals(currKey)
-						&& Thread.currentThread() == mainThread) {
-					throw new RuntimeException(
-							"Cannot add a listener to the same key that's being dispatched");
-				}
-			}
-			List<IEventListener> fifo;
-			if (listeners.containsKey(argKey)) {
-				// return if we're already listening
-				if (listeners.get(argKey).contains(argListener)) {
-					log.debug("We already have that listener here", argListener);
-					return;
-				}
-				fifo = listeners.get(argKey);
-			} else {
-				fifo = new ArrayList<IEventListener>();
-				listeners.put(argKey, fifo);
-			}
-			fifo.add(argListener);
-		}
+		defaultBus.addEventListener(argKey, argListener);
+	}
+
+	/**
+	 * Sets if the key is sticky.
+	 * 
+	 * @see EventBus#setSticky(String, boolean)
+	 */
+	public static void setSticky(String argKey, boolean argSticky) {
+		defaultBus.setSticky(argKey, argSticky);
+	}
+
+	/**
+	 * @param argKey
+	 * @return if the key is sticky
+	 * @see #setSticky(String, boolean)
+	 */
+	public static boolean isSticky(String argKey) {
+		return defaultBus.isSticky(argKey);
+	}
+
+	/**
+	 * Sets how many sticky keys have their last event kept.
+	 * 
+	 * @see EventBus#setMaxStickyKeys(int)
+	 */
+	public static void setMaxStickyKeys(int argMaxKeys) {
+		defaultBus.setMaxStickyKeys(argMaxKeys);
+	}
+
+	/**
+	 * @return how many sticky keys have their last event kept
+	 */
+	public static int getMaxStickyKeys() {
+		return defaultBus.getMaxStickyKeys();
+	}
+
+	/**
+	 * @param argKey
+	 * @return the last event dispatched of the sticky key, or null if there
+	 *         isn't one
+	 */
+	public static MVCEvent getStickyEvent(String argKey) {
+		return defaultBus.getStickyEvent(argKey);
 	}
 
 	/**
@@ -152,70 +208,128 @@ public class MVC extends Thread {
 	 */
 	public static boolean isEventListener(String argKey,
 			IEventListener argListener) {
-		if (argKey == null) {
-			throw new RuntimeException("Key cannot be null");
-		}
+		return defaultBus.isEventListener(argKey, argListener);
+	}
 
-		synchronized (listeners) {
-			if (!listeners.containsKey(argKey)) {
-				return false;
-			}
+	/**
+	 * Adds a listener for the given event key that only receives the events the
+	 * filter accepts.
+	 * 
+	 * @see EventBus#addEventListener(String, IEventFilter, IEventListener)
+	 */
+	public static void addEventListener(String argKey, IEventFilter argFilter,
+			IEventListener argListener) {
+		defaultBus.addEventListener(argKey, argFilter, argListener);
+	}
 
-			List<IEventListener> stack = listeners.get(argKey);
-			return stack.contains(argListener);
-		}
+	/**
+	 * Adds a listener for the given event key that is only weakly referenced,
+	 * so it doesn't keep the listener from being garbage collected, like a
+	 * panel that is closed without removing its listeners.
+	 * 
+	 * @see EventBus#addWeakEventListener(String, IEventListener)
+	 */
+	public static void addWeakEventListener(String argKey,
+			IEventListener argListener) {
+		defaultBus.addWeakEventListener(argKey, argListener);
 	}
 
 	/**
-	 * Gets a copy of the listeners for the given event key.
+	 * Same as {@link #addSwingEventListener(String, IEventListener, boolean)},
+	 * with the dispatch thread not waiting for the listener.
 	 * 
 	 * @param argKey
-	 * @return
+	 * @param argListener
 	 */
-	public static LinkedList<IEventListener> getListeners(String argKey) {
-		if (argKey == null) {
-			throw new RuntimeException("Key cannot be null");
-		}
+	public static void addSwingEventListener(String argKey,
+			IEventListener argListener) {
+		defaultBus.addSwingEventListener(argKey, argListener);
+	}
 
-		synchronized (listeners) {
-			if (listeners.containsKey(argKey)) {
-				return new LinkedList<IEventListener>(listeners.get(argKey));
-			} else {
-				return new LinkedList<IEventListener>();
-			}
-		}
+	/**
+	 * Adds a listener for the given event key that is called on the Swing event
+	 * dispatch thread.
+	 * 
+	 * @see EventBus#addSwingEventListener(String, IEventListener, boolean)
+	 */
+	public static void addSwingEventListener(String argKey,
+			IEventListener argListener, boolean argInOrder) {
+		defaultBus.addSwingEventListener(argKey, argListener, argInOrder);
 	}
 
 	/**
-	 * removes a listener from the given key.
+	 * Adds a listener for the given interned event key.
 	 * 
 	 * @param argKey
 	 * @param argListener
-	 * @return true if the listener was removed, and false if it wasn't there to
-	 *         begin with
+	 * @see #addEventListener(String, IEventListener)
 	 */
-	public static boolean removeEventListener(String argKey,
+	public static void addEventListener(EventKey argKey,
+			IEventListener argListener) {
+		defaultBus.addEventListener(argKey, argListener);
+	}
+
+	/**
+	 * Removes a listener from the given interned event key.
+	 * 
+	 * @see EventBus#removeEventListener(EventKey, IEventListener)
+	 */
+	public static boolean removeEventListener(EventKey argKey,
 			IEventListener argListener) {
-		if (argKey == null) {
-			throw new RuntimeException("Key cannot be null");
-		}
+		return defaultBus.removeEventListener(argKey, argListener);
+	}
 
-		synchronized (listeners) {
-			synchronized (mainThreadLock) {
-				if (argKey.equals(currKey)
-						&& Thread.currentThread() == mainThread) {
-					throw new RuntimeException(
-							"Cannot remove a listener to the same key that's being dispatched.  Return false instead.");
-				}
-			}
+	/**
+	 * Adds a listener for every event of the given class, including subclasses,
+	 * whatever its key.
+	 * 
+	 * @see EventBus#addEventListener(Class, IEventListener)
+	 */
+	public static void addEventListener(Class<?> argType,
+			IEventListener argListener) {
+		defaultBus.addEventListener(argType, argListener);
+	}
+
+	/**
+	 * Checks to see if the listener is listening to the given event type.
+	 * 
+	 * @param argType
+	 * @param argListener
+	 * @return
+	 */
+	public static boolean isEventListener(Class<?> argType,
+			IEventListener argListener) {
+		return defaultBus.isEventListener(argType, argListener);
+	}
 
-			if (listeners.containsKey(argKey)) {
-				List<IEventListener> stack = listeners.get(argKey);
-				return stack.remove(argListener);
-			} else {
-				return false;
-			}
-		}
+	/**
+	 * Removes a listener from the given event type.
+	 * 
+	 * @see EventBus#removeEventListener(Class, IEventListener)
+	 */
+	public static boolean removeEventListener(Class<?> argType,
+			IEventListener argListener) {
+		return defaultBus.removeEventListener(argType, argListener);
+	}
+
+	/**
+	 * Gets a copy of the listeners for the given event key.
+	 * 
+	 * @param argKey
+	 * @return
+	 */
+	public static LinkedList<IEventListener> getListeners(String argKey) {
+		return defaultBus.getListeners(argKey);
+	}
+
+	/**
+	 * removes a listener from the given key.
+	 * 
+	 * @see EventBus#removeEventListener(String, IEventListener)
+	 */
+	public static boolean removeEventListener(String argKey,
+			IEventListener argListener) {
+		return defaultBus.removeEventListener(argKey, argListener);
 	}
 
 	/**
@@ -225,143 +339,469 @@ public class MVC extends Thread {
 	 * @param argEvent
 	 */
 	protected static void dispatchEvent(MVCEvent argEvent) {
-		boolean hasListeners;
-		synchronized (listeners) {
-			hasListeners = listeners.containsKey(argEvent.key);
-		}
-
-		if (hasListeners) {
-			synchronized (eventQueue) {
-				eventQueue.add(argEvent);
-				eventQueue.notify();
-			}
-
-			if (!isDispatchThreadRunning()) {
-				startDispatchThread();
-			}
-		} else {
-			synchronized (monitorLock) {
-				if (monitor != null) {
-					try {
-						monitor.noListeners(argEvent);
-					} catch (Exception e) {
-						log.error("Exception caught from monitor", e);
-					}
-				}
-			}
-		}
+		defaultBus.dispatchEvent(argEvent);
+	}
+
+	/**
+	 * Debounces the key, so when events of the key are dispatched in quick
+	 * succession only the last one is dispatched, once none have been
+	 * dispatched for the quiet period.
+	 * 
+	 * @see EventBus#setDebounce(String, long, TimeUnit)
+	 */
+	public static void setDebounce(String argKey, long argQuietPeriod,
+			TimeUnit argUnit) {
+		defaultBus.setDebounce(argKey, argQuietPeriod, argUnit);
+	}
+
+	/**
+	 * Throttles the key, so at most the given number of events of the key are
+	 * dispatched each interval, and the rest are suppressed.
+	 * 
+	 * @see EventBus#setThrottle(String, int, long, TimeUnit)
+	 */
+	public static void setThrottle(String argKey, int argMaxEvents,
+			long argInterval, TimeUnit argUnit) {
+		defaultBus.setThrottle(argKey, argMaxEvents, argInterval, argUnit);
+	}
+
+	/**
+	 * Removes the debounce or throttle of the key.
+	 * 
+	 * @see EventBus#clearRateLimit(String)
+	 */
+	public static void clearRateLimit(String argKey) {
+		defaultBus.clearRateLimit(argKey);
+	}
+
+	/**
+	 * Dispatches the event after the delay.
+	 * 
+	 * @see EventBus#dispatchAfter(MVCEvent, long, TimeUnit)
+	 */
+	public static IScheduledDispatch dispatchAfter(MVCEvent argEvent,
+			long argDelay, TimeUnit argUnit) {
+		return defaultBus.dispatchAfter(argEvent, argDelay, argUnit);
+	}
+
+	/**
+	 * Dispatches a new {@link MVCEvent} of the key every period, starting a
+	 * period from now, until it's cancelled.
+	 * 
+	 * @see EventBus#dispatchEvery(String, long, TimeUnit)
+	 */
+	public static IScheduledDispatch dispatchEvery(String argKey,
+			long argPeriod, TimeUnit argUnit) {
+		return defaultBus.dispatchEvery(argKey, argPeriod, argUnit);
+	}
+
+	/**
+	 * @return the number of delayed or periodic dispatches still waiting,
+	 *         counting each periodic dispatch once
+	 */
+	public static long getScheduledDispatchCount() {
+		return defaultBus.getScheduledDispatchCount();
+	}
+
+	/**
+	 * Dispatches all the events, in order.
+	 * 
+	 * @see EventBus#dispatchAll(Collection)
+	 */
+	public static void dispatchAll(Collection<? extends MVCEvent> argEvents) {
+		defaultBus.dispatchAll(argEvents);
+	}
+
+	/**
+	 * Sets what happens when an event is dispatched and its queue is full, with
+	 * {@link OverflowPolicy#BLOCK} waiting as long as it takes.
+	 * 
+	 * @see EventBus#setOverflowPolicy(OverflowPolicy)
+	 */
+	public static void setOverflowPolicy(OverflowPolicy argPolicy) {
+		defaultBus.setOverflowPolicy(argPolicy);
+	}
+
+	/**
+	 * Sets what happens when an event is dispatched and its queue is full.
+	 * 
+	 * @see EventBus#setOverflowPolicy(OverflowPolicy, long, TimeUnit)
+	 */
+	public static void setOverflowPolicy(OverflowPolicy argPolicy,
+			long argTimeout, TimeUnit argUnit) {
+		defaultBus.setOverflowPolicy(argPolicy, argTimeout, argUnit);
+	}
+
+	/**
+	 * @return what happens when an event is dispatched and its queue is full
+	 */
+	public static OverflowPolicy getOverflowPolicy() {
+		return defaultBus.getOverflowPolicy();
+	}
+
+	/**
+	 * Gives each dispatch shard a {@link LinkedEventQueue} that holds at most
+	 * the given number of events.
+	 * 
+	 * @see EventBus#setQueueCapacity(int)
+	 */
+	public static void setQueueCapacity(final int argCapacity) {
+		defaultBus.setQueueCapacity(argCapacity);
+	}
+
+	/**
+	 * Gives each dispatch shard a {@link PriorityLaneEventQueue} with its lanes
+	 * drained in strict priority order.
+	 * 
+	 * @see EventBus#setPriorityLanes(int, int)
+	 */
+	public static void setPriorityLanes(final int argLanes,
+			final int argStarvationLimit) {
+		defaultBus.setPriorityLanes(argLanes, argStarvationLimit);
+	}
+
+	/**
+	 * Gives each dispatch shard a {@link PriorityLaneEventQueue} with its lanes
+	 * drained in weighted order, so each lane gets its weight of events
+	 * dispatched in turn.
+	 * 
+	 * @see EventBus#setWeightedPriorityLanes(int[])
+	 */
+	public static void setWeightedPriorityLanes(final int[] argWeights) {
+		defaultBus.setWeightedPriorityLanes(argWeights);
+	}
+
+	/**
+	 * Sets the priority of events of the given key that weren't given their own
+	 * priority.
+	 * 
+	 * @see EventBus#setPriority(String, int)
+	 */
+	public static void setPriority(String argKey, int argPriority) {
+		defaultBus.setPriority(argKey, argPriority);
+	}
+
+	/**
+	 * @param argKey
+	 * @return the priority of events of the key
+	 * @see #setPriority(String, int)
+	 */
+	public static int getPriority(String argKey) {
+		return defaultBus.getPriority(argKey);
+	}
+
+	/**
+	 * Gets the number of events waiting in each priority lane, added up across
+	 * the dispatch shards.
+	 * 
+	 * @see EventBus#getLaneDepths()
+	 */
+	public static int[] getLaneDepths() {
+		return defaultBus.getLaneDepths();
+	}
+
+	/**
+	 * Sets if events of the given key coalesce.
+	 * 
+	 * @see EventBus#setCoalescing(String, boolean)
+	 */
+	public static void setCoalescing(String argKey, boolean argCoalescing) {
+		defaultBus.setCoalescing(argKey, argCoalescing);
+	}
+
+	/**
+	 * @param argKey
+	 * @return if events of the key coalesce
+	 * @see #setCoalescing(String, boolean)
+	 */
+	public static boolean isCoalescing(String argKey) {
+		return defaultBus.isCoalescing(argKey);
+	}
+
+	/**
+	 * Sets the most events an {@link IBatchEventListener} receives at once.
+	 * Default is {@value #DEFAULT_MAX_BATCH_SIZE}.
+	 * 
+	 * @param argMaxBatchSize
+	 */
+	public static void setMaxBatchSize(int argMaxBatchSize) {
+		defaultBus.setMaxBatchSize(argMaxBatchSize);
+	}
+
+	/**
+	 * @return the most events an {@link IBatchEventListener} receives at once
+	 */
+	public static int getMaxBatchSize() {
+		return defaultBus.getMaxBatchSize();
+	}
+
+	/**
+	 * Dispatches the event, and returns a future that is done once every
+	 * listener has received it.
+	 * 
+	 * @see EventBus#dispatchAsync(MVCEvent)
+	 */
+	public static DispatchFuture<Void> dispatchAsync(MVCEvent argEvent) {
+		return defaultBus.dispatchAsync(argEvent);
+	}
+
+	/**
+	 * Dispatches the request, and returns a future that gives the response.
+	 * 
+	 * @see EventBus#request(RequestEvent)
+	 */
+	public static <R> DispatchFuture<R> request(RequestEvent<R> argRequest) {
+		return defaultBus.request(argRequest);
+	}
+
+	/**
+	 * Dispatches the event to its listeners right away on the calling thread,
+	 * instead of adding it to the queue for the MVC thread.
+	 * 
+	 * @see EventBus#dispatchSync(MVCEvent)
+	 */
+	public static void dispatchSync(MVCEvent argEvent) {
+		defaultBus.dispatchSync(argEvent);
 	}
 
 	/**
 	 * Split off the current MVC thread, all queued events and future event
 	 * dispatches are handled by a new MVC thread, while this one runs to
-	 * completion. If the thread calling this is not the current core MVC
-	 * thread, then an exception is thrown
+	 * completion.
 	 * 
-	 * @throws IllegalThreadException
-	 *             if the thread calling this is not an MVC thread
-	 * @throws IncorrectThreadException
-	 *             if the MVC thread calling this is not the main thread, e.g.
-	 *             it has already split off.
+	 * @see EventBus#splitOff()
 	 */
 	public static void splitOff() throws IllegalThreadException,
 			IncorrectThreadException {
-		if (Thread.currentThread() instanceof MVC) {
-			MVC thread = (MVC) Thread.currentThread();
-			synchronized (mainThreadLock) {
-				if (thread == mainThread) {
-					log.debug("Splitting off...");
-
-					MVC old = mainThread;
-					old.running = false;
-					mainThread = new MVC(old.threadCount + 1,
-							old.currEventList, old.currEvent);
-					old.currEvent = null;
-					old.currEventList = null;
-					log.debug("Starting next MVC thread");
-					mainThread.start();
-				} else {
-					log.error("Can't split off when this isn't the main thread");
-					throw new IncorrectThreadException();
-				}
-			}
-		} else {
-			log.error("Can't split off, we're not in the MVC thread.");
-			throw new IllegalThreadException();
-		}
-	}
-
-	/**
-	 * Wait for all remaining events to dispatch
-	 * 
-	 * @param timeoutMillis
-	 *            The maximum number of milliseconds to wait.
+		EventBus bus = EventBus.current();
+		(bus == null ? defaultBus : bus).splitOff();
+	}
+
+	/**
+	 * Sets the maximum number of threads that can be split off and still
+	 * running their listener at the same time.
+	 * 
+	 * @see EventBus#setMaxSplitOffs(int)
 	 */
-	public static void completeRemainingEvents(long timeoutMillis) {
+	public static void setMaxSplitOffs(int argMax) {
+		defaultBus.setMaxSplitOffs(argMax);
+	}
 
-		boolean fifoEmpty = false;
+	/**
+	 * @return the maximum number of concurrent split offs
+	 * @see #setMaxSplitOffs(int)
+	 */
+	public static int getMaxSplitOffs() {
+		return defaultBus.getMaxSplitOffs();
+	}
 
-		long absTimeout = System.currentTimeMillis() + timeoutMillis;
-		while (System.currentTimeMillis() < absTimeout) {
-			synchronized (eventQueue) {
-				fifoEmpty = (eventQueue.size() == 0);
-			}
+	/**
+	 * Sets how many threads are kept waiting for the next {@link #splitOff()}
+	 * after they have finished their listener, and how long they wait before
+	 * finishing.
+	 * 
+	 * @see EventBus#setSplitOffPool(int, long, TimeUnit)
+	 */
+	public static void setSplitOffPool(int argMaxIdle, long argIdleTimeout,
+			TimeUnit argUnit) {
+		defaultBus.setSplitOffPool(argMaxIdle, argIdleTimeout, argUnit);
+	}
 
-			if (fifoEmpty) {
-				break;
-			}
+	/**
+	 * Starts a watchdog that tells the monitor about each listener call that
+	 * takes longer than the budget.
+	 * 
+	 * @see EventBus#setWatchdog(long, TimeUnit, boolean)
+	 */
+	public static void setWatchdog(long argBudget, TimeUnit argUnit,
+			boolean argSplitOff) {
+		defaultBus.setWatchdog(argBudget, argUnit, argSplitOff);
+	}
 
-			try {
-				Thread.sleep(100);
-			} catch (InterruptedException e) {
-				break;
-			}
-		}
+	/**
+	 * Stops the watchdog.
+	 * 
+	 * @see #setWatchdog(long, TimeUnit, boolean)
+	 */
+	public static void clearWatchdog() {
+		defaultBus.clearWatchdog();
 	}
 
 	/**
-	 * Stops the dispatch thread, dispatching any remaining events before
-	 * cleanly returning. Thread automatically gets started when new events are
+	 * Starts or stops recording latency histograms for each event key, of how
+	 * long its events wait in the queue and how long each type of listener
+	 * takes to receive them.
+	 * 
+	 * @see EventBus#setLatencyTracking(boolean)
+	 */
+	public static void setLatencyTracking(boolean argTracking) {
+		defaultBus.setLatencyTracking(argTracking);
+	}
+
+	/**
+	 * @return if latency histograms are being recorded
+	 */
+	public static boolean isLatencyTracking() {
+		return defaultBus.isLatencyTracking();
+	}
+
+	/**
+	 * @param argKey
+	 * @return how long the events of the key waited in the queue, or null if
+	 *         none were recorded
+	 * @see EventBus#getQueueWaitHistogram(String)
+	 */
+	public static LatencyHistogram getQueueWaitHistogram(String argKey) {
+		return defaultBus.getQueueWaitHistogram(argKey);
+	}
+
+	/**
+	 * @return how long listeners of the type took to receive the events of
+	 *         the key, or null if none were recorded
+	 * @see EventBus#getServiceTimeHistogram(String, Class)
+	 */
+	public static LatencyHistogram getServiceTimeHistogram(String argKey,
+			Class<?> argListenerType) {
+		return defaultBus.getServiceTimeHistogram(argKey, argListenerType);
+	}
+
+	/**
+	 * @param argKey
+	 * @return the service time histograms of each type of listener that
+	 *         received events of the key
+	 */
+	public static Map<Class<?>, LatencyHistogram> getServiceTimeHistograms(
+			String argKey) {
+		return defaultBus.getServiceTimeHistograms(argKey);
+	}
+
+	/**
+	 * @return the keys with latency histograms
+	 */
+	public static Set<String> getLatencyKeys() {
+		return defaultBus.getLatencyKeys();
+	}
+
+	/**
+	 * @return the number of times {@link #splitOff()} has been called
+	 *         successfully
+	 */
+	public static long getSplitOffCount() {
+		return defaultBus.getSplitOffCount();
+	}
+
+	/**
+	 * @return the number of threads that have split off and are still running
+	 *         their listener
+	 */
+	public static int getActiveSplitOffCount() {
+		return defaultBus.getActiveSplitOffCount();
+	}
+
+	/**
+	 * @return the most threads that have been split off at the same time
+	 */
+	public static int getPeakSplitOffCount() {
+		return defaultBus.getPeakSplitOffCount();
+	}
+
+	/**
+	 * @return the number of threads waiting in the pool for the next split off
+	 */
+	public static int getIdleSplitOffThreadCount() {
+		return defaultBus.getIdleSplitOffThreadCount();
+	}
+
+	/**
+	 * @return the number of new threads split offs have had to start, as
+	 *         opposed to reusing one from the pool
+	 */
+	public static long getSplitOffThreadsCreated() {
+		return defaultBus.getSplitOffThreadsCreated();
+	}
+
+	/**
+	 * Wait for all remaining events to dispatch, including events with
+	 * listeners still running on split off threads.
+	 * 
+	 * @see EventBus#completeRemainingEvents(long)
+	 */
+	public static void completeRemainingEvents(long timeoutMillis) {
+		defaultBus.completeRemainingEvents(timeoutMillis);
+	}
+
+	/**
+	 * Waits until no events are in flight: none are queued, none are being
+	 * dispatched, and no listener is still running on a split off thread or the
+	 * blocking executor.
+	 * 
+	 * @see EventBus#awaitQuiescence(long, TimeUnit)
+	 */
+	public static boolean awaitQuiescence(long argTimeout, TimeUnit argUnit)
+			throws InterruptedException {
+		return defaultBus.awaitQuiescence(argTimeout, argUnit);
+	}
+
+	/**
+	 * Doesn't wait.
+	 * 
+	 * @see EventBus#awaitQuiescence()
+	 */
+	public static DispatchFuture<Void> awaitQuiescence() {
+		return defaultBus.awaitQuiescence();
+	}
+
+	/**
+	 * @return the number of events queued or being dispatched, counting each
+	 *         listener still running on a split off thread or the blocking
+	 *         executor separately
+	 * @see EventBus#getInFlightEventCount()
+	 */
+	public static long getInFlightEventCount() {
+		return defaultBus.getInFlightEventCount();
+	}
+
+	/**
+	 * Stops the dispatch threads, dispatching any remaining events before
+	 * cleanly returning. Threads automatically get started when new events are
 	 * dispatched
 	 */
 	public static void stopDispatchThread(long argTimeoutMillis) {
-		synchronized (mainThreadLock) {
-			mainThread.running = false;
-			synchronized (eventQueue) {
-				eventQueue.notify();
-			}
-			if ((mainThread != null) && (argTimeoutMillis > 0)) {
-				try {
-					mainThread.join(argTimeoutMillis);
-				} catch (InterruptedException e) {
-				}
-				mainThread = null;
-			}
-		}
-
+		defaultBus.stopDispatchThread(argTimeoutMillis);
 	}
 
+	/**
+	 * @return if any of the dispatch threads are running
+	 */
 	public static boolean isDispatchThreadRunning() {
-		synchronized (mainThreadLock) {
-			return mainThread != null
-					&& (mainThread.running || mainThread.getState() == State.RUNNABLE);
-		}
+		return defaultBus.isDispatchThreadRunning();
 	}
 
 	/**
-	 * Manually starts the dispatch thread.
+	 * Manually starts the dispatch threads.
 	 */
 	public static void startDispatchThread() {
-		synchronized (mainThreadLock) {
-			if (mainThread == null) {
-				mainThread = new MVC(0);
-			}
-			if (!mainThread.running) {
-				if (mainThread.getState() == State.NEW) {
-					mainThread.start();
-				}
-			}
-		}
+		defaultBus.startDispatchThread();
+	}
+
+	/**
+	 * Sets the executor that {@link IBlockingEventListener}s are called on.
+	 * 
+	 * @see EventBus#setBlockingExecutor(Executor)
+	 */
+	public static void setBlockingExecutor(Executor argExecutor) {
+		defaultBus.setBlockingExecutor(argExecutor);
+	}
+
+	/**
+	 * Gets the executor that {@link IBlockingEventListener}s are called on,
+	 * creating the default one if needed.
+	 * 
+	 * @return
+	 * @see #setBlockingExecutor(Executor)
+	 */
+	public static Executor getBlockingExecutor() {
+		return defaultBus.getBlockingExecutor();
 	}
 
 	/**
@@ -372,9 +812,7 @@ public class MVC extends Thread {
 	 * @see IGlobalEventMonitor
 	 */
 	public static void setGlobalEventMonitor(IGlobalEventMonitor argMonitor) {
-		synchronized (monitorLock) {
-			monitor = argMonitor;
-		}
+		defaultBus.setGlobalEventMonitor(argMonitor);
 	}
 
 	/**
@@ -384,165 +822,31 @@ public class MVC extends Thread {
 	 * @see IGlobalEventMonitor
 	 */
 	public static IGlobalEventMonitor getGlobalEventMonitor() {
-		synchronized (monitorLock) {
-			return monitor;
-		}
+		return defaultBus.getGlobalEventMonitor();
 	}
 
-	private volatile static EventMonitor guiMonitor = null;
-
 	/**
-	 * Convenience method to construct and show an {@link EventMonitor}. To have
-	 * more control on how the {@link EventMonitor} is configured, you can just
-	 * create it yourself and use
-	 * {@link #setGlobalEventMonitor(IGlobalEventMonitor)} to have it be the
-	 * global event monitor.
+	 * Convenience method to construct and show an {@link EventMonitor}.
 	 * 
-	 * @return the {@link EventMonitor}.
+	 * @see EventBus#showEventMonitor()
 	 */
 	public static EventMonitor showEventMonitor() {
-		if (guiMonitor == null) {
-			synchronized (monitorLock) {
-				guiMonitor = new EventMonitor(monitor);
-				setGlobalEventMonitor(guiMonitor);
-			}
-		}
-		guiMonitor.setVisible(true);
-		return guiMonitor;
+		return defaultBus.showEventMonitor();
 	}
 
 	/**
 	 * Hides the event monitor, if you had used {@link #showEventMonitor()}.
 	 */
 	public static void hideEventMonitor() {
-		if (guiMonitor != null) {
-			guiMonitor.setVisible(false);
-		}
+		defaultBus.hideEventMonitor();
 	}
 
+	/**
+	 * @return if the calling thread is a main dispatch thread of the default
+	 *         bus
+	 * @see EventBus#isMainDispatchThread()
+	 */
 	public static boolean isMainMVCThread() {
-		MVC thread = (MVC) Thread.currentThread();
-		return thread == mainThread;
-	}
-
-	@Override
-	public void run() {
-		running = true;
-		log.info("MVC thread #" + threadCount + " starting up");
-		while (running) {
-			IEventListener listener;
-			if (currEvent != null && currEventList != null
-					&& currEventList.hasNext() && currEvent.isPropagating()) {
-				synchronized (listeners) {
-					listener = currEventList.next();
-				}
-				tryPreMonitor(currEvent);
-				tryTrackEvent(currEvent);
-				try {
-					if (!listener.eventReceived(currEvent)) {
-						if (isMainMVCThread()) {
-							synchronized (listeners) {
-								currEventList.remove();
-							}
-						} else {
-							log.error("Cannot remove the listener " + listener
-									+ ", as we've been split off");
-						}
-					}
-				} catch (Exception e) {
-					synchronized (monitorLock) {
-						if (monitor != null) {
-							try {// why do I have to do this? monitors shouldn't
-									// throw
-									// exceptions
-								monitor.exceptionThrown(currEvent, e);
-							} catch (Exception e2) {
-								log.error(
-										"Exception caught from event dispatch",
-										e);
-								log.error("Exception caught from monitor", e2);
-							}
-						} else {
-							log.error("Exception caught from event dispatch", e);
-						}
-					}
-				}
-				tryPostMonitor(currEvent);
-			} else {
-				// grab next event
-				try {
-					synchronized (eventQueue) {
-						if (eventQueue.isEmpty()) {
-							eventQueue.wait();
-						}
-
-						if (!eventQueue.isEmpty()) {
-							currEvent = eventQueue.poll();
-						}
-					}
-
-					if (currEvent != null) {
-						synchronized (listeners) {
-							currEventList = listeners.get(currEvent.key)
-									.iterator();
-						}
-					}
-				} catch (Exception e) {
-					log.error("Caught exception in dispatch thread", e);
-				}
-			}
-
-		}
-		mvcThreads.remove(this);
-	}
-
-	private void tryTrackEvent(MVCEvent argEvent) {
-		if (argEvent instanceof ITrackable) {
-			ITrackable event = (ITrackable) argEvent;
-			if (event.getTrackingCategory() != null
-					&& event.getTrackingAction() != null) {
-				if (event instanceof ICustomTracker) {
-					((ICustomTracker) event).getCustomTracker().trackEvent(
-							event.getTrackingCategory(),
-							event.getTrackingAction(),
-							event.getTrackingLabel(), event.getTrackingValue());
-				} else if (tracker != null) {
-					synchronized (trackerLock) {
-						tracker.trackEvent(event.getTrackingCategory(),
-								event.getTrackingAction(),
-								event.getTrackingLabel(),
-								event.getTrackingValue());
-					}
-				} else {
-					log.warn(
-							"Event could not be tracked, as the tracker is null",
-							event);
-				}
-			}
-		}
-	}
-
-	private void tryPreMonitor(MVCEvent argEvent) {
-		if (monitor != null) {
-			synchronized (monitorLock) {
-				try {
-					monitor.beforeDispatch(argEvent);
-				} catch (Exception e) {
-					log.error("Exception caught from monitor", e);
-				}
-			}
-		}
-	}
-
-	private void tryPostMonitor(MVCEvent argEvent) {
-		synchronized (monitorLock) {
-			if (monitor != null) {
-				try {
-					monitor.afterDispatch(argEvent);
-				} catch (Exception e) {
-					log.error("Exception caught from monitor", e);
-				}
-			}
-		}
+		return defaultBus.isMainDispatchThread();
 	}
 }
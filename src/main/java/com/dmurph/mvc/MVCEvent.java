@@ -24,8 +24,17 @@
  */
 package com.dmurph.mvc;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OptionalDataException;
 import java.io.Serializable;
 import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 
 /**
@@ -37,16 +46,81 @@ import java.util.Random;
 public class MVCEvent implements Serializable{
 	private static final long serialVersionUID = 2L;
 	private static final Random random = new Random();
+	private static final AtomicIntegerFieldUpdater<MVCEvent> pendingUpdater = AtomicIntegerFieldUpdater
+			.newUpdater(MVCEvent.class, "pending");
+	@SuppressWarnings("unchecked")
+	private static final AtomicReferenceFieldUpdater<MVCEvent, DispatchFuture<?>> futureUpdater = AtomicReferenceFieldUpdater
+			.newUpdater(MVCEvent.class, (Class<DispatchFuture<?>>) (Class<?>) DispatchFuture.class, "future");
+	
+	/**
+	 * Priority of events that have to be received as soon as possible, like
+	 * ones that update the UI.
+	 */
+	public static final int PRIORITY_HIGH = 0;
+	/**
+	 * Priority of events by default.
+	 */
+	public static final int PRIORITY_NORMAL = 1;
+	/**
+	 * Priority of bulk or background events.
+	 */
+	public static final int PRIORITY_LOW = 2;
 	
 	public final int id;
 	public final String key;
+	// interned key, looked up once the key has been registered
+	private transient volatile EventKey eventKey = null;
+	// the bus the event was last queued on, for the priority of its key
+	transient volatile EventBus bus = null;
 	
 	private volatile boolean propagate = true;
+	// -1 to use the priority of the key. This and the deadline are written
+	// as optional data, so events serialized before they existed still read
+	private transient volatile int priority = -1;
+	// in terms of nanoTime, which means nothing in another JVM, so the time
+	// left is serialized instead
+	private transient volatile boolean hasDeadline = false;
+	private transient volatile long deadlineNanos = 0;
+	
+	// dispatches of this event that haven't finished yet, and the future
+	// waiting on them
+	private transient volatile int pending = 0;
+	private transient volatile DispatchFuture<?> future = null;
+	private transient volatile Throwable failure = null;
+	
+	// when the event was last queued and taken off the queue, in terms of
+	// System.nanoTime()
+	private transient volatile long queuedNanos = 0;
+	private transient volatile long dequeuedNanos = 0;
+	private transient volatile boolean dequeued = false;
 	
 	public MVCEvent(final String argKey) {
 		key = argKey;
 		id = random.nextInt();
 	}
+	
+	/**
+	 * Creates an event of the interned key, which never has to be looked up
+	 * by name.
+	 * @param argKey
+	 */
+	public MVCEvent(final EventKey argKey) {
+		this(argKey.name);
+		eventKey = argKey;
+	}
+	
+	/**
+	 * @return the interned key of this event, or null if no listener was
+	 * ever added to the key
+	 */
+	public EventKey getEventKey(){
+		EventKey interned = eventKey;
+		if(interned == null){
+			interned = EventKey.find(key);
+			eventKey = interned;
+		}
+		return interned;
+	}
 
 	@Override
 	public String toString() {
@@ -65,6 +139,106 @@ public class MVCEvent implements Serializable{
 		return propagate;
 	}
 	
+	/**
+	 * Sets the priority of this event, overriding the priority of its key.
+	 * Lower numbers are higher priorities.  Priorities only matter when the
+	 * queue has lanes, like {@link com.dmurph.mvc.queue.PriorityLaneEventQueue}.
+	 * @param argPriority the priority, usually one of {@link #PRIORITY_HIGH},
+	 * {@link #PRIORITY_NORMAL} or {@link #PRIORITY_LOW}
+	 * @see MVC#setPriority(String, int)
+	 */
+	public void setPriority(int argPriority){
+		if(argPriority < 0){
+			throw new IllegalArgumentException("Priority cannot be negative");
+		}
+		priority = argPriority;
+	}
+	
+	/**
+	 * @return the priority of this event, or of its key if it wasn't given one
+	 * @see #setPriority(int)
+	 */
+	public int getPriority(){
+		int own = priority;
+		if(own >= 0){
+			return own;
+		}
+		EventBus queuedOn = bus;
+		return queuedOn == null ? MVC.getPriority(key) : queuedOn.getPriority(key);
+	}
+	
+	/**
+	 * Sets a deadline for this event, from now.  Queued events with deadlines
+	 * are dispatched earliest deadline first, ahead of events without one, and
+	 * if the deadline passes before the event reaches its listeners it's
+	 * dropped instead.
+	 * @param argTimeout
+	 * @param argUnit
+	 * @see IExtendedEventMonitor#eventExpired(MVCEvent)
+	 */
+	public void setDeadline(long argTimeout, TimeUnit argUnit){
+		deadlineNanos = System.nanoTime() + argUnit.toNanos(argTimeout);
+		hasDeadline = true;
+	}
+	
+	/**
+	 * Removes the deadline of this event.
+	 */
+	public void clearDeadline(){
+		hasDeadline = false;
+	}
+	
+	/**
+	 * @return if this event has a deadline
+	 * @see #setDeadline(long, TimeUnit)
+	 */
+	public boolean hasDeadline(){
+		return hasDeadline;
+	}
+	
+	/**
+	 * @return the deadline, in terms of {@link System#nanoTime()}
+	 */
+	public long getDeadlineNanos(){
+		return deadlineNanos;
+	}
+	
+	/**
+	 * @return if this event has a deadline that has passed
+	 */
+	public boolean isExpired(){
+		return hasDeadline && System.nanoTime() - deadlineNanos > 0;
+	}
+	
+	/**
+	 * @return when the event was last queued to be dispatched, in terms of
+	 * {@link System#nanoTime()}
+	 */
+	public long getQueuedNanos(){
+		return queuedNanos;
+	}
+	
+	/**
+	 * @return when the event was last taken off the queue to be dispatched, in
+	 * terms of {@link System#nanoTime()}
+	 */
+	public long getDequeuedNanos(){
+		return dequeuedNanos;
+	}
+	
+	/**
+	 * How long the event waited in the queue, which a monitor can use from
+	 * {@link IGlobalEventMonitor#beforeDispatch(MVCEvent)} on.
+	 * @return the nanoseconds between the event last being queued and taken off
+	 * the queue, or -1 if it's still queued or was never queued
+	 */
+	public long getQueueWaitNanos(){
+		if(!dequeued){
+			return -1;
+		}
+		return dequeuedNanos - queuedNanos;
+	}
+	
 	/**
 	 * Dispatches the event.  Events are dispatched globally, so make
 	 * sure your key is unique!
@@ -72,4 +246,148 @@ public class MVCEvent implements Serializable{
 	public void dispatch(){
 		MVC.dispatchEvent( this);
 	}
+	
+	/**
+	 * Dispatches the event to its listeners right now, on this thread, instead
+	 * of on the MVC thread.
+	 * @see MVC#dispatchSync(MVCEvent)
+	 */
+	public void dispatchNow(){
+		MVC.dispatchSync( this);
+	}
+	
+	/**
+	 * Dispatches the event on the default bus, and returns a future that is done once every
+	 * listener has received it, including listeners that split off or are
+	 * {@link IBlockingEventListener}s.  If the same event is dispatched again
+	 * before that, the future waits for those dispatches as well.
+	 * @return
+	 * @throws RuntimeException if this event is already being dispatched with a future
+	 * @see MVC#dispatchAsync(MVCEvent)
+	 */
+	public DispatchFuture<Void> dispatchAsync(){
+		return MVC.dispatchAsync( this);
+	}
+	
+	/**
+	 * Sets the future to finish once this event has been dispatched.
+	 * @param argFuture
+	 * @throws RuntimeException if this event is already being dispatched with a future
+	 */
+	protected void setFuture(DispatchFuture<?> argFuture){
+		if(!futureUpdater.compareAndSet(this, null, argFuture)){
+			throw new RuntimeException("Event "+this+" is already being dispatched with a future");
+		}
+	}
+	
+	/**
+	 * The value the future from {@link #setFuture(DispatchFuture)} gets when the
+	 * event has been dispatched.
+	 * @return null by default
+	 */
+	protected Object getDispatchResult(){
+		return null;
+	}
+	
+	/**
+	 * Called by {@link MVC} when a dispatch starts, or when a listener call is
+	 * handed to another thread.
+	 */
+	void dispatchStarted(){
+		pendingUpdater.incrementAndGet(this);
+	}
+	
+	/**
+	 * Called by {@link MVC} when a dispatch or a handed off listener call finishes.
+	 */
+	void dispatchFinished(){
+		if(pendingUpdater.decrementAndGet(this) == 0){
+			completeFuture();
+		}
+	}
+	
+	/**
+	 * Called by {@link MVC} when the event isn't dispatched at all, as there are
+	 * no listeners.
+	 */
+	void dispatchSkipped(){
+		if(pending == 0){
+			completeFuture();
+		}
+	}
+	
+	/**
+	 * Called by {@link EventBus} when the event is queued.
+	 */
+	void queued(){
+		dequeued = false;
+		queuedNanos = System.nanoTime();
+	}
+	
+	/**
+	 * Called by {@link EventBus} when the event is taken off the queue.
+	 * @return how long the event waited in the queue
+	 */
+	long dequeued(){
+		long now = System.nanoTime();
+		dequeuedNanos = now;
+		dequeued = true;
+		return now - queuedNanos;
+	}
+	
+	/**
+	 * Called by {@link EventBus} when the event is dropped instead of
+	 * dispatched, so the future from {@link #setFuture(DispatchFuture)} is
+	 * cancelled.
+	 * @param argReason why, to finish "the event was dropped as"
+	 */
+	void dispatchDropped(String argReason){
+		if(future != null && failure == null){
+			failure = new CancellationException("Event "+this+" was dropped as "+argReason);
+		}
+	}
+	
+	void listenerFailed(Throwable argFailure){
+		if(future != null && failure == null){
+			failure = argFailure;
+		}
+	}
+	
+	private void writeObject(ObjectOutputStream argOut) throws IOException{
+		argOut.defaultWriteObject();
+		argOut.writeInt(priority);
+		boolean deadline = hasDeadline;
+		argOut.writeBoolean(deadline);
+		argOut.writeLong(deadline ? deadlineNanos - System.nanoTime() : 0);
+	}
+	
+	private void readObject(ObjectInputStream argIn) throws IOException, ClassNotFoundException{
+		argIn.defaultReadObject();
+		priority = -1;
+		try{
+			priority = argIn.readInt();
+			hasDeadline = argIn.readBoolean();
+			deadlineNanos = System.nanoTime() + argIn.readLong();
+		}catch(OptionalDataException e){
+			// written before there were priorities and deadlines
+			if(!e.eof){
+				throw e;
+			}
+		}catch(EOFException e){
+			// same, from a stream without any block data after the fields
+		}
+	}
+	
+	private void completeFuture(){
+		DispatchFuture<?> done = futureUpdater.getAndSet(this, null);
+		if(done != null){
+			Throwable thrown = failure;
+			failure = null;
+			if(thrown != null){
+				done.fail(thrown);
+			}else{
+				done.completeUnchecked(getDispatchResult());
+			}
+		}
+	}
 }
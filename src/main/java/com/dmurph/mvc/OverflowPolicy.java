@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 11:02:17 AM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+/**
+ * What {@link MVC} does when an event is dispatched and the queue of its
+ * dispatch shard is full.
+ * 
+ * @author Daniel Murphy
+ * @see MVC#setOverflowPolicy(OverflowPolicy, long, java.util.concurrent.TimeUnit)
+ * @see IExtendedEventMonitor#queueOverflowed(MVCEvent, OverflowPolicy)
+ */
+public enum OverflowPolicy {
+	/**
+	 * The dispatching thread waits for room, up to the timeout. If there's
+	 * still no room the event is dropped. A listener dispatching to the queue
+	 * its own thread drains doesn't wait, and the event is handled like
+	 * {@link #CALLER_RUNS} instead.
+	 */
+	BLOCK,
+	/**
+	 * The event being dispatched is dropped.
+	 */
+	DROP_NEWEST,
+	/**
+	 * The oldest queued event is dropped to make room. With priority lanes,
+	 * it's the oldest event of the lowest priority.
+	 * 
+	 * @see com.dmurph.mvc.queue.IEventQueue#evictOldest()
+	 */
+	DROP_OLDEST,
+	/**
+	 * The event is dispatched right away on the dispatching thread, like
+	 * {@link MVC#dispatchSync(MVCEvent)}, so it can be received before events
+	 * of the same key that are still queued.
+	 */
+	CALLER_RUNS
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 1:35:58 AM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts the events in flight: queued, being dispatched, or with a listener
+ * still running on a split off thread or the blocking executor. Lets threads
+ * wait for that to reach zero. Entering and exiting is a single atomic
+ * operation unless somebody is waiting.
+ * 
+ * @author Daniel Murphy
+ */
+class QuiescenceTracker {
+
+	private final AtomicLong inFlight = new AtomicLong();
+	private final AtomicInteger waiting = new AtomicInteger();
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition quiet = lock.newCondition();
+	private ArrayList<DispatchFuture<Void>> futures = new ArrayList<DispatchFuture<Void>>();
+
+	public void enter() {
+		inFlight.incrementAndGet();
+	}
+
+	public void exit() {
+		if (inFlight.decrementAndGet() == 0 && waiting.get() > 0) {
+			signalQuiet();
+		}
+	}
+
+	public long getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * Waits until there are no events in flight.
+	 * 
+	 * @param argTimeout
+	 * @param argUnit
+	 * @return false if the timeout passed first
+	 * @throws InterruptedException
+	 */
+	public boolean await(long argTimeout, TimeUnit argUnit)
+			throws InterruptedException {
+		long nanos = argUnit.toNanos(argTimeout);
+		waiting.incrementAndGet();
+		lock.lock();
+		try {
+			while (inFlight.get() != 0) {
+				if (nanos <= 0) {
+					return false;
+				}
+				nanos = quiet.awaitNanos(nanos);
+			}
+			return true;
+		} finally {
+			lock.unlock();
+			waiting.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @return a future that is done the next time there are no events in
+	 *         flight, or right away if there are none now.
+	 */
+	public DispatchFuture<Void> awaitFuture() {
+		DispatchFuture<Void> future = new DispatchFuture<Void>();
+		waiting.incrementAndGet();
+		lock.lock();
+		try {
+			if (inFlight.get() != 0) {
+				futures.add(future);
+				return future;
+			}
+		} finally {
+			lock.unlock();
+		}
+		waiting.decrementAndGet();
+		future.complete(null);
+		return future;
+	}
+
+	private void signalQuiet() {
+		ArrayList<DispatchFuture<Void>> done;
+		lock.lock();
+		try {
+			if (inFlight.get() != 0) {
+				return;
+			}
+			quiet.signalAll();
+			done = futures;
+			futures = new ArrayList<DispatchFuture<Void>>();
+			waiting.addAndGet(-done.size());
+		} finally {
+			lock.unlock();
+		}
+		for (DispatchFuture<Void> future : done) {
+			future.complete(null);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 12:09:33 AM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+/**
+ * An event that listeners can answer. A listener calls
+ * {@link #respond(Object)}, and whoever dispatched the event with
+ * {@link #request()} gets the response from the returned future once all the
+ * listeners have received the event. If more than one listener responds, the
+ * last response wins, so a listener can call {@link #stopPropagation()} after
+ * responding to keep it.
+ * 
+ * @author Daniel Murphy
+ */
+public class RequestEvent<R> extends MVCEvent {
+	private static final long serialVersionUID = 1L;
+
+	private volatile R response = null;
+
+	public RequestEvent(String argKey) {
+		super(argKey);
+	}
+
+	/**
+	 * Sets the response to this request.
+	 * 
+	 * @param argResponse
+	 */
+	public void respond(R argResponse) {
+		response = argResponse;
+	}
+
+	/**
+	 * @return the response so far, or null if nobody has responded
+	 */
+	public R getResponse() {
+		return response;
+	}
+
+	/**
+	 * Dispatches the request.
+	 * 
+	 * @return a future that gives the response once all the listeners have
+	 *         received the request. The response is null if there are no
+	 *         listeners or none of them responded.
+	 * @throws RuntimeException
+	 *             if this event is already being dispatched with a future
+	 * @see MVC#request(RequestEvent)
+	 */
+	public DispatchFuture<R> request() {
+		return MVC.request(this);
+	}
+
+	@Override
+	protected Object getDispatchResult() {
+		return response;
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 9:24:52 AM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Array of values, such as the listener arrays of each key, indexed by
+ * {@link EventKey#id}. Slots are in fixed size chunks that are never copied,
+ * so growing the table doesn't lose a compare-and-swap made on the old one,
+ * and reads never lock.
+ * 
+ * @author Daniel Murphy
+ */
+class RoutingTable<V> {
+
+	private static final int CHUNK_BITS = 10;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private volatile AtomicReferenceArray<V>[] chunks = newChunks(0);
+
+	/**
+	 * @param argId
+	 * @return the value in the slot, or null
+	 */
+	public V get(int argId) {
+		AtomicReferenceArray<V>[] current = chunks;
+		int chunk = argId >>> CHUNK_BITS;
+		if (chunk >= current.length) {
+			return null;
+		}
+		return current[chunk].get(argId & CHUNK_MASK);
+	}
+
+	public boolean compareAndSet(int argId, V argExpected, V argUpdate) {
+		return chunk(argId).compareAndSet(argId & CHUNK_MASK, argExpected,
+				argUpdate);
+	}
+
+	public void set(int argId, V argValue) {
+		chunk(argId).set(argId & CHUNK_MASK, argValue);
+	}
+
+	private AtomicReferenceArray<V> chunk(int argId) {
+		int chunk = argId >>> CHUNK_BITS;
+		AtomicReferenceArray<V>[] current = chunks;
+		if (chunk < current.length) {
+			return current[chunk];
+		}
+		synchronized (this) {
+			current = chunks;
+			if (chunk >= current.length) {
+				AtomicReferenceArray<V>[] grown = newChunks(chunk + 1);
+				System.arraycopy(current, 0, grown, 0, current.length);
+				for (int i = current.length; i < grown.length; i++) {
+					grown[i] = new AtomicReferenceArray<V>(CHUNK_SIZE);
+				}
+				chunks = grown;
+				current = grown;
+			}
+			return current[chunk];
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V> AtomicReferenceArray<V>[] newChunks(int argLength) {
+		// generic arrays can't be created, and the caller fills it with
+		// chunks of V only
+		return (AtomicReferenceArray<V>[]) new AtomicReferenceArray<?>[argLength];
+	}
+}
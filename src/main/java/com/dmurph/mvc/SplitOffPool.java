@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:22:05 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.LinkedList;
+
+/**
+ * Keeps the dispatch threads of a bus that have finished after
+ * {@link MVC#splitOff()} parked so the next split off can reuse one instead of
+ * starting a new thread, limits how many threads can be split off at once,
+ * and counts what happens.
+ * 
+ * @author Daniel Murphy
+ */
+class SplitOffPool {
+
+	public static final int DEFAULT_MAX_IDLE = 16;
+	public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60000;
+
+	// most recently used first, so the rest can time out
+	private final LinkedList<EventBus.DispatchThread> idle = new LinkedList<EventBus.DispatchThread>();
+	private int maxIdle = DEFAULT_MAX_IDLE;
+	private long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+	private int maxActive = Integer.MAX_VALUE;
+
+	private int active = 0;
+	private int peakActive = 0;
+	private long splitOffs = 0;
+	private long threadsCreated = 0;
+
+	/**
+	 * Reserves a split off, waiting while the maximum number of split off
+	 * threads are still running.
+	 */
+	public synchronized void acquire() {
+		boolean interrupted = false;
+		while (active >= maxActive) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		active++;
+		splitOffs++;
+		if (active > peakActive) {
+			peakActive = active;
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Reserves a split off if one is free, without waiting.
+	 * 
+	 * @return false if the maximum number of split off threads are running
+	 */
+	public synchronized boolean tryAcquire() {
+		if (active >= maxActive) {
+			return false;
+		}
+		active++;
+		splitOffs++;
+		if (active > peakActive) {
+			peakActive = active;
+		}
+		return true;
+	}
+
+	/**
+	 * Called when a split off thread has finished its listener, or if a
+	 * reserved split off didn't happen.
+	 */
+	public synchronized void release() {
+		active--;
+		notifyAll();
+	}
+
+	public synchronized EventBus.DispatchThread pollIdle() {
+		return idle.poll();
+	}
+
+	/**
+	 * @param argThread
+	 * @return false if the pool is full, and the thread should finish
+	 */
+	public synchronized boolean offerIdle(EventBus.DispatchThread argThread) {
+		if (idle.size() >= maxIdle) {
+			return false;
+		}
+		idle.addFirst(argThread);
+		return true;
+	}
+
+	/**
+	 * @param argThread
+	 * @return false if the thread was already taken out of the pool
+	 */
+	public synchronized boolean removeIdle(EventBus.DispatchThread argThread) {
+		return idle.remove(argThread);
+	}
+
+	/**
+	 * Takes all the idle threads out of the pool.
+	 * 
+	 * @return
+	 */
+	public synchronized EventBus.DispatchThread[] drainIdle() {
+		EventBus.DispatchThread[] threads = idle
+				.toArray(new EventBus.DispatchThread[idle.size()]);
+		idle.clear();
+		return threads;
+	}
+
+	public synchronized void threadCreated() {
+		threadsCreated++;
+	}
+
+	public synchronized int getMaxIdle() {
+		return maxIdle;
+	}
+
+	public synchronized void setMaxIdle(int argMaxIdle) {
+		maxIdle = argMaxIdle;
+	}
+
+	public synchronized long getIdleTimeoutMillis() {
+		return idleTimeoutMillis;
+	}
+
+	public synchronized void setIdleTimeoutMillis(long argIdleTimeoutMillis) {
+		idleTimeoutMillis = argIdleTimeoutMillis;
+	}
+
+	public synchronized int getMaxActive() {
+		return maxActive;
+	}
+
+	public synchronized void setMaxActive(int argMaxActive) {
+		maxActive = argMaxActive;
+		notifyAll();
+	}
+
+	public synchronized int getActive() {
+		return active;
+	}
+
+	public synchronized int getPeakActive() {
+		return peakActive;
+	}
+
+	public synchronized int getIdle() {
+		return idle.size();
+	}
+
+	public synchronized long getSplitOffs() {
+		return splitOffs;
+	}
+
+	public synchronized long getThreadsCreated() {
+		return threadsCreated;
+	}
+}
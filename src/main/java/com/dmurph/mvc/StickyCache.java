@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 6:02:48 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the last event dispatched of each sticky key, so it can be replayed
+ * to listeners added later. Only the most recently used keys are kept, up to
+ * a limit. Each recorded event gets a sequence number, so a replay can tell
+ * if the listener has already received a newer event.
+ * 
+ * @author Daniel Murphy
+ */
+class StickyCache {
+
+	public static final int DEFAULT_MAX_KEYS = 1024;
+
+	private final ConcurrentHashMap<String, Boolean> keys = new ConcurrentHashMap<String, Boolean>();
+	private final LruMap entries = new LruMap();
+	private long sequence = 0;
+
+	public void setSticky(String argKey, boolean argSticky) {
+		if (argSticky) {
+			keys.put(argKey, Boolean.TRUE);
+		} else {
+			keys.remove(argKey);
+			synchronized (entries) {
+				entries.remove(argKey);
+			}
+		}
+	}
+
+	public boolean isSticky(String argKey) {
+		return !keys.isEmpty() && keys.containsKey(argKey);
+	}
+
+	public void setMaxKeys(int argMaxKeys) {
+		synchronized (entries) {
+			entries.maxKeys = argMaxKeys;
+			while (entries.size() > argMaxKeys) {
+				entries.remove(entries.keySet().iterator().next());
+			}
+		}
+	}
+
+	public int getMaxKeys() {
+		synchronized (entries) {
+			return entries.maxKeys;
+		}
+	}
+
+	/**
+	 * Records the event as the last one of its key, if the key is sticky.
+	 */
+	public void record(MVCEvent argEvent) {
+		if (!isSticky(argEvent.key)) {
+			return;
+		}
+		synchronized (entries) {
+			entries.put(argEvent.key, new Entry(argEvent, ++sequence));
+		}
+	}
+
+	/**
+	 * @return the last event recorded for the key, or null
+	 */
+	public Entry get(String argKey) {
+		if (!isSticky(argKey)) {
+			return null;
+		}
+		synchronized (entries) {
+			return entries.get(argKey);
+		}
+	}
+
+	public static class Entry {
+		public final MVCEvent event;
+		public final long sequence;
+
+		Entry(MVCEvent argEvent, long argSequence) {
+			event = argEvent;
+			sequence = argSequence;
+		}
+	}
+
+	private static class LruMap extends LinkedHashMap<String, Entry> {
+		private static final long serialVersionUID = 1L;
+
+		int maxKeys = DEFAULT_MAX_KEYS;
+
+		LruMap() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, StickyCache.Entry> argEldest) {
+			return size() > maxKeys;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 6:20:13 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+/**
+ * Queued when a listener is added to a sticky key, so the last event of the
+ * key is replayed to it on the dispatch thread, in order with the other
+ * events of the key. Never reaches listeners itself.
+ * 
+ * @author Daniel Murphy
+ */
+class StickyReplayEvent extends MVCEvent {
+	private static final long serialVersionUID = 1L;
+
+	public final transient IEventListener listener;
+	/**
+	 * The sequence of the sticky event when the listener was added. If a
+	 * newer event has been dispatched since, the listener already has it.
+	 */
+	public final long sequence;
+
+	public StickyReplayEvent(String argKey, IEventListener argListener,
+			long argSequence) {
+		super(argKey);
+		listener = argListener;
+		sequence = argSequence;
+	}
+}
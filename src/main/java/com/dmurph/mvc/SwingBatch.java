@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 3:34:06 PM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.ArrayList;
+
+/**
+ * Calls to {@link SwingListener}s gathered by a dispatch thread, to be run
+ * on the event dispatch thread, in order, with one <code>invokeLater</code>
+ * instead of one each. Only touched by the thread dispatching its shard
+ * until it's handed to the event dispatch thread.
+ * 
+ * @author Daniel Murphy
+ */
+class SwingBatch {
+
+	public final ArrayList<MVCEvent> events = new ArrayList<MVCEvent>();
+	public final ArrayList<IEventListener> listeners = new ArrayList<IEventListener>();
+
+	public void add(MVCEvent argEvent, IEventListener argListener) {
+		events.add(argEvent);
+		listeners.add(argListener);
+	}
+
+	public boolean isEmpty() {
+		return events.isEmpty();
+	}
+
+	public int size() {
+		return events.size();
+	}
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 3:20:52 PM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+/**
+ * A listener added with
+ * {@link MVC#addSwingEventListener(String, IEventListener, boolean)}, which
+ * is called on the Swing event dispatch thread. It equals the listener it
+ * wraps, so the listener can still be found and removed as usual.
+ * 
+ * @author Daniel Murphy
+ */
+class SwingListener implements IEventListener {
+
+	public final IEventListener listener;
+	/**
+	 * If the dispatch thread waits for the listener before going on to the
+	 * next one.
+	 */
+	public final boolean inOrder;
+
+	public SwingListener(IEventListener argListener, boolean argInOrder) {
+		listener = argListener;
+		inOrder = argInOrder;
+	}
+
+	/**
+	 * Only used if called directly, {@link EventBus} hands the listener to
+	 * the event dispatch thread itself.
+	 */
+	public boolean eventReceived(MVCEvent argEvent) {
+		return listener.eventReceived(argEvent);
+	}
+
+	@Override
+	public boolean equals(Object argOther) {
+		if (argOther instanceof SwingListener) {
+			return listener.equals(((SwingListener) argOther).listener);
+		}
+		return argOther == listener || listener.equals(argOther);
+	}
+
+	@Override
+	public int hashCode() {
+		return listener.hashCode();
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 5:07:19 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+/**
+ * Lets at most a number of events of the key through each interval, and
+ * suppresses the rest.
+ * 
+ * @author Daniel Murphy
+ */
+class Throttler extends DispatchOperator {
+
+	private final EventBus bus;
+	private final int max;
+	private final long intervalNanos;
+
+	private long windowStart;
+	private int count = 0;
+
+	public Throttler(EventBus argBus, int argMax, long argIntervalNanos) {
+		bus = argBus;
+		max = argMax;
+		intervalNanos = argIntervalNanos;
+		windowStart = System.nanoTime();
+	}
+
+	@Override
+	public boolean admit(MVCEvent argEvent) {
+		synchronized (this) {
+			long now = System.nanoTime();
+			if (now - windowStart >= intervalNanos) {
+				windowStart = now;
+				count = 0;
+			}
+			if (count < max) {
+				count++;
+				return true;
+			}
+		}
+		bus.suppress(argEvent, false);
+		return false;
+	}
+}
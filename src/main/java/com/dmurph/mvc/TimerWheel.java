@@ -0,0 +1,364 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 3:34:10 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timer wheel that dispatches events when their time comes. Each
+ * bucket of the wheel is a doubly linked list of timers, so adding and
+ * cancelling are constant time: other threads only add to lock free queues,
+ * and the timer thread moves timers into their buckets once per tick.
+ * Timers fire up to one tick late. The timer thread is a daemon, and parks
+ * while there are no timers.
+ * 
+ * @author Daniel Murphy
+ */
+class TimerWheel implements Runnable {
+	private static final Logger log = LoggerFactory.getLogger(TimerWheel.class);
+
+	public static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	public static final int DEFAULT_WHEEL_SIZE = 512;
+	// so a flood of new timers can't hold up a tick for too long
+	private static final int MAX_TRANSFERS_PER_TICK = 100000;
+	private static final AtomicIntegerFieldUpdater<Timer> stateUpdater = AtomicIntegerFieldUpdater
+			.newUpdater(Timer.class, "state");
+
+	private final EventBus bus;
+	private final Timer[] heads;
+	private final int mask;
+	private final long tickNanos;
+
+	private final ConcurrentLinkedQueue<Timer> added = new ConcurrentLinkedQueue<Timer>();
+	private final ConcurrentLinkedQueue<Timer> cancelled = new ConcurrentLinkedQueue<Timer>();
+	private final AtomicLong pending = new AtomicLong();
+	private final Object startLock = new Object();
+	private volatile Thread thread = null;
+	private volatile boolean idle = false;
+	private volatile boolean stopped = false;
+
+	// only used by the timer thread
+	private long startTime;
+	private long tick;
+	private long inWheel = 0;
+
+	public TimerWheel(EventBus argBus) {
+		this(argBus, DEFAULT_TICK_NANOS, DEFAULT_WHEEL_SIZE);
+	}
+
+	public TimerWheel(EventBus argBus, long argTickNanos, int argWheelSize) {
+		if (argTickNanos <= 0) {
+			throw new IllegalArgumentException("Tick must be positive");
+		}
+		int size = 1;
+		while (size < argWheelSize) {
+			size <<= 1;
+		}
+		bus = argBus;
+		heads = new Timer[size];
+		mask = size - 1;
+		tickNanos = argTickNanos;
+	}
+
+	/**
+	 * @param argEvent
+	 *            the event to dispatch, or null to dispatch a new event of the
+	 *            key each time
+	 * @param argKey
+	 * @param argDelayNanos
+	 * @param argPeriodNanos
+	 *            0 to only dispatch once
+	 */
+	public IScheduledDispatch schedule(MVCEvent argEvent, String argKey,
+			long argDelayNanos, long argPeriodNanos) {
+		return add(new Timer(argEvent, argKey, null, System.nanoTime()
+				+ Math.max(0, argDelayNanos), argPeriodNanos));
+	}
+
+	/**
+	 * Runs the task on the timer thread after the delay. The task has to be
+	 * quick, as it holds up every other timer.
+	 * 
+	 * @param argTask
+	 * @param argDelayNanos
+	 */
+	public IScheduledDispatch schedule(Runnable argTask, long argDelayNanos) {
+		return add(new Timer(null, null, argTask, System.nanoTime()
+				+ Math.max(0, argDelayNanos), 0));
+	}
+
+	private Timer add(Timer argTimer) {
+		if (stopped) {
+			throw new RuntimeException("Timer of " + bus.getName()
+					+ " has been shut down");
+		}
+		pending.incrementAndGet();
+		added.add(argTimer);
+		start();
+		return argTimer;
+	}
+
+	/**
+	 * @return the number of timers that haven't fired or been cancelled,
+	 *         counting each periodic timer once
+	 */
+	public long getPendingCount() {
+		return pending.get();
+	}
+
+	/**
+	 * Stops the timer thread for good, dropping the timers that haven't
+	 * fired, and waits for it to finish.
+	 * 
+	 * @param argTimeoutMillis
+	 *            how long to wait, or 0 to not wait
+	 */
+	public void shutdown(long argTimeoutMillis) {
+		Thread current;
+		synchronized (startLock) {
+			stopped = true;
+			current = thread;
+		}
+		added.clear();
+		pending.set(0);
+		if (current == null) {
+			return;
+		}
+		LockSupport.unpark(current);
+		if (argTimeoutMillis > 0 && current != Thread.currentThread()) {
+			try {
+				current.join(argTimeoutMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void start() {
+		Thread current = thread;
+		if (current == null) {
+			synchronized (startLock) {
+				if (thread == null && !stopped) {
+					current = new Thread(this, bus.getName() + " Timer");
+					current.setDaemon(true);
+					thread = current;
+					current.start();
+				}
+			}
+		} else if (idle) {
+			LockSupport.unpark(current);
+		}
+	}
+
+	public void run() {
+		startTime = System.nanoTime();
+		tick = 0;
+		while (!stopped) {
+			if (inWheel == 0 && added.isEmpty()) {
+				idle = true;
+				// check again, as a timer could have been added before we
+				// said we were idle
+				if (added.isEmpty() && !stopped) {
+					LockSupport.park(this);
+				}
+				idle = false;
+				// nothing is in the wheel, so just catch up
+				tick = (System.nanoTime() - startTime) / tickNanos;
+				continue;
+			}
+			long now = waitForNextTick();
+			if (stopped) {
+				break;
+			}
+			removeCancelled();
+			transferAdded();
+			expire((int) (tick & mask), now);
+			tick++;
+		}
+	}
+
+	private long waitForNextTick() {
+		long deadline = startTime + (tick + 1) * tickNanos;
+		while (true) {
+			long now = System.nanoTime();
+			long remaining = deadline - now;
+			if (remaining <= 0 || stopped) {
+				return now;
+			}
+			LockSupport.parkNanos(this, remaining);
+		}
+	}
+
+	private void transferAdded() {
+		for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+			Timer timer = added.poll();
+			if (timer == null) {
+				return;
+			}
+			if (timer.state != Timer.WAITING) {
+				continue;
+			}
+			long calculated = (timer.deadline - startTime) / tickNanos;
+			timer.remainingRounds = (calculated - tick) / heads.length;
+			long ticks = Math.max(calculated, tick);
+			link(timer, (int) (ticks & mask));
+		}
+	}
+
+	private void removeCancelled() {
+		Timer timer;
+		while ((timer = cancelled.poll()) != null) {
+			if (timer.bucket != -1) {
+				unlink(timer);
+			}
+		}
+	}
+
+	private void expire(int argBucket, long argNow) {
+		Timer timer = heads[argBucket];
+		while (timer != null) {
+			Timer next = timer.next;
+			if (timer.remainingRounds <= 0) {
+				unlink(timer);
+				fire(timer);
+			} else {
+				timer.remainingRounds--;
+			}
+			timer = next;
+		}
+	}
+
+	private void fire(Timer argTimer) {
+		MVCEvent event = argTimer.event;
+		if (argTimer.period > 0) {
+			if (argTimer.state != Timer.WAITING) {
+				return;
+			}
+			if (event == null) {
+				event = new MVCEvent(argTimer.key);
+			}
+			// from the last deadline, so the period doesn't drift
+			argTimer.deadline += argTimer.period;
+			added.add(argTimer);
+		} else if (!stateUpdater.compareAndSet(argTimer, Timer.WAITING,
+				Timer.DONE)) {
+			return;
+		} else {
+			pending.decrementAndGet();
+		}
+		if (argTimer.task != null) {
+			try {
+				argTimer.task.run();
+			} catch (Exception e) {
+				log.error("Exception caught from timer task", e);
+			}
+			return;
+		}
+		try {
+			bus.dispatchEvent(event);
+		} catch (Exception e) {
+			log.error("Exception caught dispatching timed event " + event, e);
+		}
+	}
+
+	private void link(Timer argTimer, int argBucket) {
+		Timer head = heads[argBucket];
+		argTimer.bucket = argBucket;
+		argTimer.prev = null;
+		argTimer.next = head;
+		if (head != null) {
+			head.prev = argTimer;
+		}
+		heads[argBucket] = argTimer;
+		inWheel++;
+	}
+
+	private void unlink(Timer argTimer) {
+		if (argTimer.prev != null) {
+			argTimer.prev.next = argTimer.next;
+		} else {
+			heads[argTimer.bucket] = argTimer.next;
+		}
+		if (argTimer.next != null) {
+			argTimer.next.prev = argTimer.prev;
+		}
+		argTimer.bucket = -1;
+		argTimer.next = null;
+		argTimer.prev = null;
+		inWheel--;
+	}
+
+	private class Timer implements IScheduledDispatch {
+		static final int WAITING = 0;
+		static final int CANCELLED = 1;
+		static final int DONE = 2;
+
+		final MVCEvent event;
+		final String key;
+		final Runnable task;
+		final long period;
+		volatile int state = WAITING;
+
+		// only used by the timer thread
+		long deadline;
+		long remainingRounds;
+		int bucket = -1;
+		Timer next;
+		Timer prev;
+
+		Timer(MVCEvent argEvent, String argKey, Runnable argTask,
+				long argDeadline, long argPeriod) {
+			event = argEvent;
+			key = argKey;
+			task = argTask;
+			deadline = argDeadline;
+			period = argPeriod;
+		}
+
+		public boolean cancel() {
+			if (!stateUpdater.compareAndSet(this, WAITING, CANCELLED)) {
+				return false;
+			}
+			pending.decrementAndGet();
+			cancelled.add(this);
+			return true;
+		}
+
+		public boolean isCancelled() {
+			return state == CANCELLED;
+		}
+
+		public boolean isDone() {
+			return state == DONE;
+		}
+	}
+}
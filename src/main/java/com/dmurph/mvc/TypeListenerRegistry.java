@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 8:03:51 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Listeners subscribed to an event class or interface instead of a key.
+ * Registrations are kept under a lock, and the listeners for each concrete
+ * event class, from the class itself up through its superclasses and
+ * interfaces, are resolved once and cached by class. Dispatching an event
+ * only looks up its class in the cache, so there's no reflection or string
+ * work per event.
+ * 
+ * @author Daniel Murphy
+ */
+class TypeListenerRegistry {
+
+	private static final IEventListener[] NONE = new IEventListener[0];
+
+	private final HashMap<Class<?>, IEventListener[]> registered = new HashMap<Class<?>, IEventListener[]>();
+	private final ConcurrentHashMap<Class<?>, IEventListener[]> resolved = new ConcurrentHashMap<Class<?>, IEventListener[]>();
+	private volatile int count = 0;
+	// bumped on each change, so a resolve that raced with a change isn't
+	// cached
+	private volatile int version = 0;
+
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * @param argEventClass
+	 *            the concrete class of an event
+	 * @return the listeners for events of the class, or null if there are
+	 *         none. Do not modify the array.
+	 */
+	public IEventListener[] get(Class<?> argEventClass) {
+		if (count == 0) {
+			return null;
+		}
+		IEventListener[] listeners = resolved.get(argEventClass);
+		if (listeners == null) {
+			int current = version;
+			listeners = resolve(argEventClass);
+			synchronized (registered) {
+				if (current == version) {
+					resolved.put(argEventClass, listeners);
+				}
+			}
+		}
+		return listeners.length == 0 ? null : listeners;
+	}
+
+	private IEventListener[] resolve(Class<?> argEventClass) {
+		ArrayList<IEventListener> all = new ArrayList<IEventListener>();
+		synchronized (registered) {
+			for (Class<?> type = argEventClass; type != null; type = type
+					.getSuperclass()) {
+				addAll(registered.get(type), all);
+			}
+			for (Class<?> type = argEventClass; type != null; type = type
+					.getSuperclass()) {
+				addInterfaces(type, all);
+			}
+		}
+		return all.isEmpty() ? NONE : all.toArray(new IEventListener[all
+				.size()]);
+	}
+
+	private void addInterfaces(Class<?> argType, ArrayList<IEventListener> argAll) {
+		for (Class<?> type : argType.getInterfaces()) {
+			addAll(registered.get(type), argAll);
+			addInterfaces(type, argAll);
+		}
+	}
+
+	private static void addAll(IEventListener[] argListeners,
+			ArrayList<IEventListener> argAll) {
+		if (argListeners == null) {
+			return;
+		}
+		for (IEventListener listener : argListeners) {
+			if (!argAll.contains(listener)) {
+				argAll.add(listener);
+			}
+		}
+	}
+
+	public boolean contains(Class<?> argType, IEventListener argListener) {
+		synchronized (registered) {
+			IEventListener[] current = registered.get(argType);
+			return current != null
+					&& ListenerRegistry.indexOf(current, argListener) != -1;
+		}
+	}
+
+	public boolean add(Class<?> argType, IEventListener argListener) {
+		synchronized (registered) {
+			IEventListener[] current = registered.get(argType);
+			IEventListener[] next;
+			if (current == null) {
+				next = new IEventListener[] { argListener };
+			} else if (ListenerRegistry.indexOf(current, argListener) != -1) {
+				return false;
+			} else {
+				next = new IEventListener[current.length + 1];
+				System.arraycopy(current, 0, next, 0, current.length);
+				next[current.length] = argListener;
+			}
+			registered.put(argType, next);
+			count++;
+			changed();
+			return true;
+		}
+	}
+
+	public boolean remove(Class<?> argType, IEventListener argListener) {
+		synchronized (registered) {
+			IEventListener[] current = registered.get(argType);
+			if (current == null) {
+				return false;
+			}
+			int index = ListenerRegistry.indexOf(current, argListener);
+			if (index == -1) {
+				return false;
+			}
+			if (current.length == 1) {
+				registered.remove(argType);
+			} else {
+				IEventListener[] next = new IEventListener[current.length - 1];
+				System.arraycopy(current, 0, next, 0, index);
+				System.arraycopy(current, index + 1, next, index, next.length
+						- index);
+				registered.put(argType, next);
+			}
+			count--;
+			changed();
+			return true;
+		}
+	}
+
+	/**
+	 * Removes the listener from every type events of the class are
+	 * dispatched to.
+	 * 
+	 * @return true if it was removed from any of them
+	 */
+	public boolean removeMatching(Class<?> argEventClass, IEventListener argListener) {
+		if (count == 0) {
+			return false;
+		}
+		boolean removed = false;
+		synchronized (registered) {
+			for (Class<?> type = argEventClass; type != null; type = type
+					.getSuperclass()) {
+				removed |= remove(type, argListener);
+				removed |= removeInterfaces(type, argListener);
+			}
+		}
+		return removed;
+	}
+
+	private boolean removeInterfaces(Class<?> argType, IEventListener argListener) {
+		boolean removed = false;
+		for (Class<?> type : argType.getInterfaces()) {
+			removed |= remove(type, argListener);
+			removed |= removeInterfaces(type, argListener);
+		}
+		return removed;
+	}
+
+	private void changed() {
+		version++;
+		resolved.clear();
+	}
+}
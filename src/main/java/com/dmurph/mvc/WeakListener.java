@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 11:02:31 AM, Oct 18, 2026
+ */
+package com.dmurph.mvc;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * A listener added with {@link MVC#addWeakEventListener(String, IEventListener)}.
+ * It only weakly references the listener, and once the listener is collected
+ * it's put on the {@link ListenerRegistry}'s queue, which the dispatcher
+ * drains to remove it from its key. It equals the listener it references, so
+ * the listener can still be found and removed as usual.
+ * 
+ * @author Daniel Murphy
+ */
+class WeakListener extends WeakReference<IEventListener> implements IEventListener {
+
+	public final String key;
+	private final int hash;
+
+	public WeakListener(String argKey, IEventListener argListener,
+			ReferenceQueue<? super IEventListener> argQueue) {
+		super(argListener, argQueue);
+		key = argKey;
+		hash = argListener.hashCode();
+	}
+
+	/**
+	 * Only used if called directly, {@link MVC} calls the listener itself.
+	 */
+	public boolean eventReceived(MVCEvent argEvent) {
+		IEventListener listener = get();
+		return listener == null || listener.eventReceived(argEvent);
+	}
+
+	@Override
+	public boolean equals(Object argOther) {
+		if (argOther == this) {
+			return true;
+		}
+		IEventListener listener = get();
+		if (listener == null) {
+			return false;
+		}
+		if (argOther instanceof WeakListener) {
+			argOther = ((WeakListener) argOther).get();
+		}
+		return listener == argOther || listener.equals(argOther);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+}
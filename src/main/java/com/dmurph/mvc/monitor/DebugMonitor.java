@@ -3,16 +3,21 @@
  */
 package com.dmurph.mvc.monitor;
 
+import java.util.concurrent.TimeUnit;
+
 import com.dmurph.mvc.I18n;
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.IExtendedEventMonitor;
 import com.dmurph.mvc.IGlobalEventMonitor;
 import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.OverflowPolicy;
 import com.dmurph.mvc.ObjectEvent;
 
 /**
  * Prints out all events before they dispatch to std out.
  * @author Daniel Murphy
  */
-public class DebugMonitor implements IGlobalEventMonitor {
+public class DebugMonitor implements IExtendedEventMonitor {
 	
 	private IGlobalEventMonitor monitor;
 	
@@ -61,5 +66,58 @@ public class DebugMonitor implements IGlobalEventMonitor {
 			monitor.exceptionThrown(argEvent, argException);
 		}
 	}
+
+	/**
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#eventCoalesced(com.dmurph.mvc.MVCEvent, com.dmurph.mvc.MVCEvent)
+	 */
+	public void eventCoalesced(MVCEvent argReplaced, MVCEvent argReplacement) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).eventCoalesced(argReplaced, argReplacement);
+		}
+		System.out.println(I18n.getText("monitor.coalesced", argReplaced.key));
+	}
+
+	/**
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#queueOverflowed(com.dmurph.mvc.MVCEvent, com.dmurph.mvc.OverflowPolicy)
+	 */
+	public void queueOverflowed(MVCEvent argEvent, OverflowPolicy argPolicy) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).queueOverflowed(argEvent, argPolicy);
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#eventExpired(com.dmurph.mvc.MVCEvent)
+	 */
+	public void eventExpired(MVCEvent argEvent) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).eventExpired(argEvent);
+		}
+		System.out.println(I18n.getText("monitor.expired", argEvent.key));
+	}
+
+	/**
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#eventSuppressed(com.dmurph.mvc.MVCEvent)
+	 */
+	public void eventSuppressed(MVCEvent argEvent) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).eventSuppressed(argEvent);
+		}
+		System.out.println(I18n.getText("monitor.suppressed", argEvent.key));
+	}
 	
+	/**
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#listenerStalled(com.dmurph.mvc.MVCEvent, com.dmurph.mvc.IEventListener, long, java.lang.StackTraceElement[])
+	 */
+	public void listenerStalled(MVCEvent argEvent, IEventListener argListener,
+			long argElapsedNanos, StackTraceElement[] argStack) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).listenerStalled(argEvent, argListener, argElapsedNanos, argStack);
+		}
+		System.out.println(I18n.getText("monitor.stalled", argListener.getClass().getName(),
+				argEvent.key, TimeUnit.NANOSECONDS.toMillis(argElapsedNanos)+""));
+		for(StackTraceElement element : argStack){
+			System.out.println("\tat "+element);
+		}
+	}
 }
@@ -30,6 +30,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.Arrays;
 
 import javax.swing.Box;
 import javax.swing.JButton;
@@ -39,8 +40,12 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 
 import com.dmurph.mvc.I18n;
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.IExtendedEventMonitor;
 import com.dmurph.mvc.IGlobalEventMonitor;
+import com.dmurph.mvc.MVC;
 import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.OverflowPolicy;
 
 /**
  * This is an event monitor gui, for displaying all {@link MVCEvent}s that
@@ -48,7 +53,7 @@ import com.dmurph.mvc.MVCEvent;
  * dispatched when.
  * @author Daniel Murphy
  */
-public class EventMonitor extends JFrame implements IGlobalEventMonitor {
+public class EventMonitor extends JFrame implements IExtendedEventMonitor {
 	private static final long serialVersionUID = 1L;
 	
 	/**
@@ -71,6 +76,11 @@ public class EventMonitor extends JFrame implements IGlobalEventMonitor {
 	private int numEvents = 0;
 	private int numSilentEvents = 0;
 	private int numExceptions = 0;
+	private int numCoalesced = 0;
+	private int numOverflows = 0;
+	private int numExpired = 0;
+	private int numSuppressed = 0;
+	private int numStalled = 0;
 	
 	/**
 	 * Creates a simple event monitor.
@@ -214,7 +224,20 @@ public class EventMonitor extends JFrame implements IGlobalEventMonitor {
 	}
 	
 	private void updateInfo(){
-		info.setText(I18n.getText("monitor.gui.info", numEvents+"", numSilentEvents+"", numExceptions+""));
+		String text = I18n.getText("monitor.gui.info", numEvents+"", numSilentEvents+"", numExceptions+"", numCoalesced+"", numOverflows+"", numExpired+"", numSuppressed+"", numStalled+"");
+		int[] depths = MVC.getLaneDepths();
+		if(depths.length > 0){
+			text += " " + I18n.getText("monitor.gui.lanes", Arrays.toString(depths));
+		}
+		info.setText(text);
+	}
+	
+	/**
+	 * @return the number of events waiting in each priority lane
+	 * @see MVC#getLaneDepths()
+	 */
+	public int[] getLaneDepths() {
+		return MVC.getLaneDepths();
 	}
 	
 	protected static enum EventType{
@@ -235,6 +258,114 @@ public class EventMonitor extends JFrame implements IGlobalEventMonitor {
 		}
 	}
 	
+	/**
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#eventCoalesced(com.dmurph.mvc.MVCEvent, com.dmurph.mvc.MVCEvent)
+	 */
+	public void eventCoalesced(MVCEvent argReplaced, MVCEvent argReplacement) {
+		if(delegate instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) delegate).eventCoalesced(argReplaced, argReplacement);
+		}
+		if(enabled){
+			numCoalesced++;
+			updateInfo();
+		}
+	}
+	
+	/**
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#queueOverflowed(com.dmurph.mvc.MVCEvent, com.dmurph.mvc.OverflowPolicy)
+	 */
+	public void queueOverflowed(MVCEvent argEvent, OverflowPolicy argPolicy) {
+		if(delegate instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) delegate).queueOverflowed(argEvent, argPolicy);
+		}
+		if(enabled){
+			numOverflows++;
+			updateInfo();
+		}
+	}
+	
+	/**
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#eventExpired(com.dmurph.mvc.MVCEvent)
+	 */
+	public void eventExpired(MVCEvent argEvent) {
+		if(delegate instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) delegate).eventExpired(argEvent);
+		}
+		if(enabled){
+			numEvents++;
+			numExpired++;
+			updateInfo();
+		}
+	}
+	
+	/**
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#eventSuppressed(com.dmurph.mvc.MVCEvent)
+	 */
+	public void eventSuppressed(MVCEvent argEvent) {
+		if(delegate instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) delegate).eventSuppressed(argEvent);
+		}
+		if(enabled){
+			numEvents++;
+			numSuppressed++;
+			updateInfo();
+		}
+	}
+	
+	/**
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#listenerStalled(com.dmurph.mvc.MVCEvent, com.dmurph.mvc.IEventListener, long, java.lang.StackTraceElement[])
+	 */
+	public void listenerStalled(MVCEvent argEvent, IEventListener argListener,
+			long argElapsedNanos, StackTraceElement[] argStack) {
+		if(delegate instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) delegate).listenerStalled(argEvent, argListener, argElapsedNanos, argStack);
+		}
+		if(enabled){
+			numStalled++;
+			updateInfo();
+		}
+	}
+	
+	/**
+	 * @return how many listener calls went over the watchdog's budget since
+	 *         this monitor was made
+	 */
+	public int getStalledCount() {
+		return numStalled;
+	}
+	
+	/**
+	 * @return how many events were suppressed by a debounce or throttle since
+	 *         this monitor was made
+	 */
+	public int getSuppressedCount() {
+		return numSuppressed;
+	}
+	
+	/**
+	 * @return how many events were dropped as their deadline passed since
+	 *         this monitor was made
+	 */
+	public int getExpiredCount() {
+		return numExpired;
+	}
+	
+	/**
+	 * @return how many times an event was dispatched to a full queue since
+	 *         this monitor was made
+	 */
+	public int getOverflowCount() {
+		return numOverflows;
+	}
+	
+	/**
+	 * @return how many events were replaced by newer events of a coalescing
+	 *         key since this monitor was made
+	 */
+	public int getCoalescedCount() {
+		return numCoalesced;
+	}
+	
 //	public static void main(String[] args) {
 //		EventMonitor monitor = new EventMonitor(EventMonitorType.BEFORE_DISPATCH, MVC.getGlobalEventMonitor());
 //		MVC.setGlobalEventMonitor(monitor);
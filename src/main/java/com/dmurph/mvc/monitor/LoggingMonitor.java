@@ -24,12 +24,17 @@
  */
 package com.dmurph.mvc.monitor;
 
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.dmurph.mvc.I18n;
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.IExtendedEventMonitor;
 import com.dmurph.mvc.IGlobalEventMonitor;
 import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.OverflowPolicy;
 import com.dmurph.mvc.ObjectEvent;
 
 /**
@@ -39,7 +44,7 @@ import com.dmurph.mvc.ObjectEvent;
  * @author Daniel
  *
  */
-public class LoggingMonitor implements IGlobalEventMonitor {
+public class LoggingMonitor implements IExtendedEventMonitor {
 	
 	private static final Logger log = LoggerFactory.getLogger(LoggingMonitor.class);
 	private IGlobalEventMonitor monitor;
@@ -94,4 +99,63 @@ public class LoggingMonitor implements IGlobalEventMonitor {
 		log.error(argException.getLocalizedMessage());
 		argException.printStackTrace();
 	}
+	
+	/**
+	 * Logs at the debug level.
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#eventCoalesced(com.dmurph.mvc.MVCEvent, com.dmurph.mvc.MVCEvent)
+	 */
+	public void eventCoalesced(MVCEvent argReplaced, MVCEvent argReplacement) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).eventCoalesced(argReplaced, argReplacement);
+		}
+		log.debug(I18n.getText("monitor.coalesced", argReplaced.key), argReplaced);
+	}
+
+	/**
+	 * Logs at the warning level.
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#queueOverflowed(com.dmurph.mvc.MVCEvent, com.dmurph.mvc.OverflowPolicy)
+	 */
+	public void queueOverflowed(MVCEvent argEvent, OverflowPolicy argPolicy) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).queueOverflowed(argEvent, argPolicy);
+		}
+		log.warn(I18n.getText("monitor.overflow", argEvent.key, argPolicy.toString()), argEvent);
+	}
+
+	/**
+	 * Logs at the debug level.
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#eventExpired(com.dmurph.mvc.MVCEvent)
+	 */
+	public void eventExpired(MVCEvent argEvent) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).eventExpired(argEvent);
+		}
+		log.debug(I18n.getText("monitor.expired", argEvent.key), argEvent);
+	}
+
+	/**
+	 * Logs at the debug level.
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#eventSuppressed(com.dmurph.mvc.MVCEvent)
+	 */
+	public void eventSuppressed(MVCEvent argEvent) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).eventSuppressed(argEvent);
+		}
+		log.debug(I18n.getText("monitor.suppressed", argEvent.key), argEvent);
+	}
+
+	/**
+	 * Logs at the warn level, with the stack of the listener.
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#listenerStalled(com.dmurph.mvc.MVCEvent, com.dmurph.mvc.IEventListener, long, java.lang.StackTraceElement[])
+	 */
+	public void listenerStalled(MVCEvent argEvent, IEventListener argListener,
+			long argElapsedNanos, StackTraceElement[] argStack) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).listenerStalled(argEvent, argListener, argElapsedNanos, argStack);
+		}
+		Throwable stack = new Throwable(argListener.toString());
+		stack.setStackTrace(argStack);
+		log.warn(I18n.getText("monitor.stalled", argListener.getClass().getName(),
+				argEvent.key, TimeUnit.NANOSECONDS.toMillis(argElapsedNanos)+""), stack);
+	}
 }
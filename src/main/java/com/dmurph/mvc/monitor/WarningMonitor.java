@@ -3,14 +3,19 @@
  */
 package com.dmurph.mvc.monitor;
 
+import java.util.concurrent.TimeUnit;
+
 import com.dmurph.mvc.I18n;
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.IExtendedEventMonitor;
 import com.dmurph.mvc.IGlobalEventMonitor;
 import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.OverflowPolicy;
 
 /**
  * Displays warnings to std out.
  */
-public class WarningMonitor implements IGlobalEventMonitor {
+public class WarningMonitor implements IExtendedEventMonitor {
 	
 	private IGlobalEventMonitor monitor;
 	
@@ -61,4 +66,60 @@ public class WarningMonitor implements IGlobalEventMonitor {
 		System.err.println(I18n.getText("monitor.exception", argEvent.key)+" "+argException);
 		argException.printStackTrace(System.err);
 	}
+
+	/**
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#eventCoalesced(com.dmurph.mvc.MVCEvent, com.dmurph.mvc.MVCEvent)
+	 */
+	public void eventCoalesced(MVCEvent argReplaced, MVCEvent argReplacement) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).eventCoalesced(argReplaced, argReplacement);
+		}
+	}
+
+	/**
+	 * Warns to the console that the queue is full
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#queueOverflowed(com.dmurph.mvc.MVCEvent, com.dmurph.mvc.OverflowPolicy)
+	 */
+	public void queueOverflowed(MVCEvent argEvent, OverflowPolicy argPolicy) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).queueOverflowed(argEvent, argPolicy);
+		}
+		System.err.println(I18n.getText("monitor.overflow", argEvent.key, argPolicy.toString()));
+	}
+
+	/**
+	 * Warns to the console that an event expired
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#eventExpired(com.dmurph.mvc.MVCEvent)
+	 */
+	public void eventExpired(MVCEvent argEvent) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).eventExpired(argEvent);
+		}
+		System.out.println(I18n.getText("monitor.expired", argEvent.key));
+	}
+
+	/**
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#eventSuppressed(com.dmurph.mvc.MVCEvent)
+	 */
+	public void eventSuppressed(MVCEvent argEvent) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).eventSuppressed(argEvent);
+		}
+	}
+
+	/**
+	 * Warns to the console with the stack of the listener.
+	 * @see com.dmurph.mvc.IExtendedEventMonitor#listenerStalled(com.dmurph.mvc.MVCEvent, com.dmurph.mvc.IEventListener, long, java.lang.StackTraceElement[])
+	 */
+	public void listenerStalled(MVCEvent argEvent, IEventListener argListener,
+			long argElapsedNanos, StackTraceElement[] argStack) {
+		if(monitor instanceof IExtendedEventMonitor){
+			((IExtendedEventMonitor) monitor).listenerStalled(argEvent, argListener, argElapsedNanos, argStack);
+		}
+		System.err.println(I18n.getText("monitor.stalled", argListener.getClass().getName(),
+				argEvent.key, TimeUnit.NANOSECONDS.toMillis(argElapsedNanos)+""));
+		for(StackTraceElement element : argStack){
+			System.err.println("\tat "+element);
+		}
+	}
 }
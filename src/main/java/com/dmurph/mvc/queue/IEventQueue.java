@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 4:02:17 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc.queue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+
+/**
+ * The queue that holds events waiting to be dispatched by the {@link MVC}
+ * thread. Any number of threads may add events, but only the current main
+ * {@link MVC} thread takes them off.
+ * 
+ * @author Daniel Murphy
+ * @see MVC#setEventQueue(IEventQueue)
+ */
+public interface IEventQueue {
+
+	/**
+	 * Adds the event to the end of the queue without waiting.
+	 * 
+	 * @param argEvent
+	 * @return true if the event was added, false if the queue is full
+	 */
+	public boolean offer(MVCEvent argEvent);
+
+	/**
+	 * Adds the event to the end of the queue, waiting for room if the queue
+	 * is full.
+	 * 
+	 * @param argEvent
+	 * @throws InterruptedException
+	 */
+	public void put(MVCEvent argEvent) throws InterruptedException;
+
+	/**
+	 * Adds the event to the end of the queue, waiting up to the timeout for
+	 * room if the queue is full.
+	 * 
+	 * @param argEvent
+	 * @param argTimeout
+	 * @param argUnit
+	 * @return true if the event was added, false if there was still no room
+	 * @throws InterruptedException
+	 */
+	public boolean offer(MVCEvent argEvent, long argTimeout, TimeUnit argUnit)
+			throws InterruptedException;
+
+	/**
+	 * Adds all the events to the end of the queue, in order, as one batch,
+	 * waiting for room if the queue is full. The wait can't be interrupted,
+	 * but the thread's interrupt status is kept.
+	 * 
+	 * @param argEvents
+	 */
+	public void putAll(List<MVCEvent> argEvents);
+
+	/**
+	 * Removes the next event without waiting.
+	 * 
+	 * @return the next event, or null if the queue is empty
+	 */
+	public MVCEvent poll();
+
+	/**
+	 * Removes the event that matters least, to make room for a new one. For
+	 * a queue in order that's the oldest event, and for a queue with
+	 * priorities it's the oldest event of the lowest priority.
+	 * 
+	 * @return the event removed, or null if the queue is empty
+	 * @see com.dmurph.mvc.OverflowPolicy#DROP_OLDEST
+	 */
+	public MVCEvent evictOldest();
+
+	/**
+	 * Removes the next event, waiting for one to be added if the queue is
+	 * empty.
+	 * 
+	 * @return the next event, or null if {@link #wakeUp()} was called while
+	 *         waiting
+	 * @throws InterruptedException
+	 */
+	public MVCEvent take() throws InterruptedException;
+
+	/**
+	 * Wakes up the thread waiting in {@link #take()}, if there is one.
+	 */
+	public void wakeUp();
+
+	/**
+	 * @return if there are no events in the queue
+	 */
+	public boolean isEmpty();
+
+	/**
+	 * @return the number of events in the queue
+	 */
+	public int size();
+}
@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 4:10:51 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc.queue;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.dmurph.mvc.MVCEvent;
+
+/**
+ * Default event queue, a {@link LinkedList} guarded by its own monitor.
+ * Unbounded unless it's given a capacity.
+ * 
+ * @author Daniel Murphy
+ */
+public class LinkedEventQueue implements IEventQueue {
+
+	private final LinkedList<MVCEvent> queue = new LinkedList<MVCEvent>();
+	private final int capacity;
+
+	/**
+	 * Creates an unbounded queue.
+	 */
+	public LinkedEventQueue() {
+		this(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param argCapacity
+	 *            the most events the queue holds
+	 */
+	public LinkedEventQueue(int argCapacity) {
+		if (argCapacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		capacity = argCapacity;
+	}
+
+	/**
+	 * @return the most events the queue holds
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#offer(com.dmurph.mvc.MVCEvent)
+	 */
+	public boolean offer(MVCEvent argEvent) {
+		synchronized (queue) {
+			if (queue.size() >= capacity) {
+				return false;
+			}
+			queue.add(argEvent);
+			// producers wait on the same monitor when the queue is full
+			queue.notifyAll();
+		}
+		return true;
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#offer(com.dmurph.mvc.MVCEvent,
+	 *      long, java.util.concurrent.TimeUnit)
+	 */
+	public boolean offer(MVCEvent argEvent, long argTimeout, TimeUnit argUnit)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + argUnit.toNanos(argTimeout);
+		synchronized (queue) {
+			while (queue.size() >= capacity) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(queue, remaining);
+			}
+			queue.add(argEvent);
+			queue.notifyAll();
+		}
+		return true;
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#put(com.dmurph.mvc.MVCEvent)
+	 */
+	public void put(MVCEvent argEvent) throws InterruptedException {
+		synchronized (queue) {
+			while (queue.size() >= capacity) {
+				queue.wait();
+			}
+			queue.add(argEvent);
+			queue.notifyAll();
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#putAll(java.util.List)
+	 */
+	public void putAll(List<MVCEvent> argEvents) {
+		boolean interrupted = false;
+		synchronized (queue) {
+			for (MVCEvent event : argEvents) {
+				while (queue.size() >= capacity) {
+					queue.notifyAll();
+					try {
+						queue.wait();
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+				queue.add(event);
+			}
+			queue.notifyAll();
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#poll()
+	 */
+	public MVCEvent poll() {
+		synchronized (queue) {
+			MVCEvent event = queue.poll();
+			if (event != null && capacity != Integer.MAX_VALUE) {
+				queue.notifyAll();
+			}
+			return event;
+		}
+	}
+
+	/**
+	 * The same as {@link #poll()}, as events are taken off in order.
+	 * 
+	 * @see com.dmurph.mvc.queue.IEventQueue#evictOldest()
+	 */
+	public MVCEvent evictOldest() {
+		return poll();
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#take()
+	 */
+	public MVCEvent take() throws InterruptedException {
+		synchronized (queue) {
+			if (queue.isEmpty()) {
+				queue.wait();
+			}
+			MVCEvent event = queue.poll();
+			if (event != null && capacity != Integer.MAX_VALUE) {
+				queue.notifyAll();
+			}
+			return event;
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#wakeUp()
+	 */
+	public void wakeUp() {
+		synchronized (queue) {
+			queue.notifyAll();
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#isEmpty()
+	 */
+	public boolean isEmpty() {
+		synchronized (queue) {
+			return queue.isEmpty();
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#size()
+	 */
+	public int size() {
+		synchronized (queue) {
+			return queue.size();
+		}
+	}
+}
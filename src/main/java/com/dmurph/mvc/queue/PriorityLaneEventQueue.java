@@ -0,0 +1,388 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 1:15:48 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc.queue;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.dmurph.mvc.MVCEvent;
+
+/**
+ * Event queue with a lane for each priority, see
+ * {@link MVCEvent#getPriority()}. Events with priorities past the last lane
+ * go in the last lane. Lanes are either drained in strict priority order,
+ * where a lower lane only gets an event taken once it's been passed over too
+ * many times in a row, or in weighted order, where each lane gets its weight
+ * of events taken in turn. Events of the same key only stay in order if they
+ * have the same priority.
+ * 
+ * @author Daniel Murphy
+ */
+public class PriorityLaneEventQueue implements IEventQueue {
+
+	/**
+	 * Default number of lanes, one for each of the priorities in
+	 * {@link MVCEvent}.
+	 */
+	public static final int DEFAULT_LANES = 3;
+	/**
+	 * Default number of events taken from higher lanes before a waiting lower
+	 * lane gets one.
+	 */
+	public static final int DEFAULT_STARVATION_LIMIT = 64;
+
+	private final LinkedList<MVCEvent>[] lanes;
+	// null for strict order
+	private final int[] weights;
+	private final int starvationLimit;
+	private final int capacity;
+
+	private final int[] credits;
+	private final int[] passedOver;
+	private int size = 0;
+
+	/**
+	 * Creates an unbounded queue with {@link #DEFAULT_LANES} lanes in strict
+	 * order.
+	 */
+	public PriorityLaneEventQueue() {
+		this(DEFAULT_LANES, DEFAULT_STARVATION_LIMIT);
+	}
+
+	/**
+	 * Creates an unbounded queue with lanes in strict order.
+	 * 
+	 * @param argLanes
+	 * @param argStarvationLimit
+	 *            how many events in a row can be taken from higher lanes
+	 *            while a lower lane is waiting, or 0 to always take from the
+	 *            highest lane
+	 */
+	public PriorityLaneEventQueue(int argLanes, int argStarvationLimit) {
+		this(argLanes, null, argStarvationLimit, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a queue with lanes in strict order.
+	 * 
+	 * @param argLanes
+	 * @param argStarvationLimit
+	 * @param argCapacity
+	 *            the most events the queue holds, across all lanes
+	 */
+	public PriorityLaneEventQueue(int argLanes, int argStarvationLimit,
+			int argCapacity) {
+		this(argLanes, null, argStarvationLimit, argCapacity);
+	}
+
+	/**
+	 * Creates an unbounded queue with lanes in weighted order.
+	 * 
+	 * @param argWeights
+	 *            the weight of each lane, highest priority first
+	 */
+	public PriorityLaneEventQueue(int[] argWeights) {
+		this(argWeights.length, argWeights, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a queue with lanes in weighted order.
+	 * 
+	 * @param argWeights
+	 *            the weight of each lane, highest priority first
+	 * @param argCapacity
+	 *            the most events the queue holds, across all lanes
+	 */
+	public PriorityLaneEventQueue(int[] argWeights, int argCapacity) {
+		this(argWeights.length, argWeights, 0, argCapacity);
+	}
+
+	private PriorityLaneEventQueue(int argLanes, int[] argWeights,
+			int argStarvationLimit, int argCapacity) {
+		if (argLanes < 1) {
+			throw new IllegalArgumentException("There must be at least one lane");
+		}
+		if (argStarvationLimit < 0) {
+			throw new IllegalArgumentException("Starvation limit cannot be negative");
+		}
+		if (argCapacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		if (argWeights != null) {
+			argWeights = argWeights.clone();
+			for (int weight : argWeights) {
+				if (weight < 1) {
+					throw new IllegalArgumentException("Weights must be positive");
+				}
+			}
+		}
+		lanes = newLanes(argLanes);
+		weights = argWeights;
+		starvationLimit = argStarvationLimit;
+		capacity = argCapacity;
+		credits = argWeights == null ? null : argWeights.clone();
+		passedOver = new int[argLanes];
+	}
+
+	/**
+	 * @return the number of lanes
+	 */
+	public int getLaneCount() {
+		return lanes.length;
+	}
+
+	/**
+	 * @return the number of events waiting in each lane, highest priority
+	 *         first
+	 */
+	public int[] getLaneDepths() {
+		synchronized (lanes) {
+			int[] depths = new int[lanes.length];
+			for (int i = 0; i < lanes.length; i++) {
+				depths[i] = lanes[i].size();
+			}
+			return depths;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static LinkedList<MVCEvent>[] newLanes(int argLanes) {
+		// generic arrays can't be created, but every element is set here
+		LinkedList<MVCEvent>[] lanes = (LinkedList<MVCEvent>[]) new LinkedList<?>[argLanes];
+		for (int i = 0; i < argLanes; i++) {
+			lanes[i] = new LinkedList<MVCEvent>();
+		}
+		return lanes;
+	}
+
+	private LinkedList<MVCEvent> laneFor(MVCEvent argEvent) {
+		return lanes[Math.min(argEvent.getPriority(), lanes.length - 1)];
+	}
+
+	private void add(MVCEvent argEvent) {
+		if (argEvent == null) {
+			throw new NullPointerException();
+		}
+		laneFor(argEvent).add(argEvent);
+		size++;
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#offer(com.dmurph.mvc.MVCEvent)
+	 */
+	public boolean offer(MVCEvent argEvent) {
+		synchronized (lanes) {
+			if (size >= capacity) {
+				return false;
+			}
+			add(argEvent);
+			lanes.notifyAll();
+		}
+		return true;
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#offer(com.dmurph.mvc.MVCEvent,
+	 *      long, java.util.concurrent.TimeUnit)
+	 */
+	public boolean offer(MVCEvent argEvent, long argTimeout, TimeUnit argUnit)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + argUnit.toNanos(argTimeout);
+		synchronized (lanes) {
+			while (size >= capacity) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(lanes, remaining);
+			}
+			add(argEvent);
+			lanes.notifyAll();
+		}
+		return true;
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#put(com.dmurph.mvc.MVCEvent)
+	 */
+	public void put(MVCEvent argEvent) throws InterruptedException {
+		synchronized (lanes) {
+			while (size >= capacity) {
+				lanes.wait();
+			}
+			add(argEvent);
+			lanes.notifyAll();
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#putAll(java.util.List)
+	 */
+	public void putAll(List<MVCEvent> argEvents) {
+		boolean interrupted = false;
+		synchronized (lanes) {
+			for (MVCEvent event : argEvents) {
+				while (size >= capacity) {
+					lanes.notifyAll();
+					try {
+						lanes.wait();
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+				add(event);
+			}
+			lanes.notifyAll();
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#poll()
+	 */
+	public MVCEvent poll() {
+		synchronized (lanes) {
+			return remove();
+		}
+	}
+
+	/**
+	 * Removes the oldest event of the lowest lane that has any, so the events
+	 * that matter most are kept.
+	 * 
+	 * @see com.dmurph.mvc.queue.IEventQueue#evictOldest()
+	 */
+	public MVCEvent evictOldest() {
+		synchronized (lanes) {
+			for (int i = lanes.length - 1; i >= 0; i--) {
+				if (!lanes[i].isEmpty()) {
+					MVCEvent event = lanes[i].removeFirst();
+					size--;
+					if (capacity != Integer.MAX_VALUE) {
+						lanes.notifyAll();
+					}
+					return event;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#take()
+	 */
+	public MVCEvent take() throws InterruptedException {
+		synchronized (lanes) {
+			if (size == 0) {
+				lanes.wait();
+			}
+			return remove();
+		}
+	}
+
+	private MVCEvent remove() {
+		if (size == 0) {
+			return null;
+		}
+		int lane = weights == null ? nextStrictLane() : nextWeightedLane();
+		MVCEvent event = lanes[lane].removeFirst();
+		size--;
+		if (capacity != Integer.MAX_VALUE) {
+			lanes.notifyAll();
+		}
+		return event;
+	}
+
+	private int nextStrictLane() {
+		int highest = -1;
+		for (int i = 0; i < lanes.length; i++) {
+			if (lanes[i].isEmpty()) {
+				passedOver[i] = 0;
+			} else if (highest == -1) {
+				highest = i;
+			}
+		}
+		int lane = highest;
+		if (starvationLimit > 0) {
+			// the lowest lane that's waited too long goes first
+			for (int i = lanes.length - 1; i > highest; i--) {
+				if (passedOver[i] >= starvationLimit) {
+					lane = i;
+					break;
+				}
+			}
+			for (int i = highest; i < lanes.length; i++) {
+				if (i != lane && !lanes[i].isEmpty()) {
+					passedOver[i]++;
+				}
+			}
+		}
+		passedOver[lane] = 0;
+		return lane;
+	}
+
+	private int nextWeightedLane() {
+		while (true) {
+			for (int i = 0; i < lanes.length; i++) {
+				if (credits[i] > 0 && !lanes[i].isEmpty()) {
+					credits[i]--;
+					return i;
+				}
+			}
+			// every waiting lane has had its share, start a new round
+			System.arraycopy(weights, 0, credits, 0, weights.length);
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#wakeUp()
+	 */
+	public void wakeUp() {
+		synchronized (lanes) {
+			lanes.notifyAll();
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#isEmpty()
+	 */
+	public boolean isEmpty() {
+		synchronized (lanes) {
+			return size == 0;
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#size()
+	 */
+	public int size() {
+		synchronized (lanes) {
+			return size;
+		}
+	}
+}
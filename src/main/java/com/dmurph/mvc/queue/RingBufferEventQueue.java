@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 4:25:06 PM, Oct 17, 2026
+ */
+package com.dmurph.mvc.queue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.dmurph.mvc.MVCEvent;
+
+/**
+ * Bounded, pre-allocated event queue for many producer threads and one
+ * consumer. Producers claim a slot by advancing the tail sequence with a
+ * compare-and-swap, write the event, and then publish it by moving the slot's
+ * own sequence forward, so no producer ever takes a lock. The consumer only
+ * parks when the queue is empty, and producers only unpark it if it is
+ * actually waiting.
+ * 
+ * @author Daniel Murphy
+ */
+public class RingBufferEventQueue implements IEventQueue {
+
+	/**
+	 * Default number of slots in the ring.
+	 */
+	public static final int DEFAULT_CAPACITY = 65536;
+
+	private static final long FULL_WAIT_NANOS = 1000;
+
+	private final int capacity;
+	private final int mask;
+	private final AtomicReferenceArray<MVCEvent> entries;
+	// sequence of each slot. Equals the position when the slot is free to be
+	// claimed for that position, and position + 1 once it is published.
+	private final AtomicLongArray sequences;
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong head = new AtomicLong();
+
+	private volatile Thread waiter = null;
+	private volatile boolean wakeUpRequested = false;
+
+	public RingBufferEventQueue() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param argCapacity
+	 *            the number of slots, rounded up to the next power of two
+	 */
+	public RingBufferEventQueue(int argCapacity) {
+		if (argCapacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		int size = 1;
+		while (size < argCapacity) {
+			size <<= 1;
+		}
+		capacity = size;
+		mask = size - 1;
+		entries = new AtomicReferenceArray<MVCEvent>(size);
+		sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * @return the number of slots in the ring
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#offer(com.dmurph.mvc.MVCEvent)
+	 */
+	public boolean offer(MVCEvent argEvent) {
+		if (argEvent == null) {
+			throw new NullPointerException();
+		}
+		while (true) {
+			long pos = tail.get();
+			int index = (int) pos & mask;
+			long seq = sequences.get(index);
+			if (seq == pos) {
+				if (tail.compareAndSet(pos, pos + 1)) {
+					entries.set(index, argEvent);
+					sequences.set(index, pos + 1);
+					signalConsumer();
+					return true;
+				}
+			} else if (seq < pos) {
+				// the consumer hasn't freed this slot yet from the last lap
+				return false;
+			}
+			// otherwise another producer got the slot first, try again
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#put(com.dmurph.mvc.MVCEvent)
+	 */
+	public void put(MVCEvent argEvent) throws InterruptedException {
+		while (!offer(argEvent)) {
+			LockSupport.parkNanos(FULL_WAIT_NANOS);
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#offer(com.dmurph.mvc.MVCEvent,
+	 *      long, java.util.concurrent.TimeUnit)
+	 */
+	public boolean offer(MVCEvent argEvent, long argTimeout, TimeUnit argUnit)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + argUnit.toNanos(argTimeout);
+		while (!offer(argEvent)) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return false;
+			}
+			LockSupport.parkNanos(Math.min(remaining, FULL_WAIT_NANOS));
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Claims as many slots as it can at once, up to the whole ring, so a batch
+	 * is usually published with a single compare-and-swap.
+	 * 
+	 * @see com.dmurph.mvc.queue.IEventQueue#putAll(java.util.List)
+	 */
+	public void putAll(List<MVCEvent> argEvents) {
+		for (MVCEvent event : argEvents) {
+			if (event == null) {
+				throw new NullPointerException();
+			}
+		}
+		boolean interrupted = false;
+		int offset = 0;
+		int total = argEvents.size();
+		while (offset < total) {
+			int count = Math.min(total - offset, capacity);
+			long pos = tryClaim(count);
+			if (pos == -1) {
+				LockSupport.parkNanos(FULL_WAIT_NANOS);
+				interrupted |= Thread.interrupted();
+				continue;
+			}
+			for (int i = 0; i < count; i++) {
+				int index = (int) (pos + i) & mask;
+				entries.set(index, argEvents.get(offset + i));
+				sequences.set(index, pos + i + 1);
+			}
+			offset += count;
+			signalConsumer();
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return the first of the claimed positions, or -1 if there isn't room
+	 */
+	private long tryClaim(int argCount) {
+		while (true) {
+			long pos = tail.get();
+			boolean stale = false;
+			for (int i = 0; i < argCount; i++) {
+				long seq = sequences.get((int) (pos + i) & mask);
+				if (seq < pos + i) {
+					return -1;
+				} else if (seq > pos + i) {
+					stale = true;
+					break;
+				}
+			}
+			if (!stale && tail.compareAndSet(pos, pos + argCount)) {
+				return pos;
+			}
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#poll()
+	 */
+	public MVCEvent poll() {
+		while (true) {
+			long pos = head.get();
+			int index = (int) pos & mask;
+			long seq = sequences.get(index);
+			if (seq == pos + 1) {
+				if (head.compareAndSet(pos, pos + 1)) {
+					MVCEvent event = entries.get(index);
+					entries.set(index, null);
+					sequences.set(index, pos + capacity);
+					return event;
+				}
+			} else if (seq < pos + 1) {
+				// empty, or claimed but not published yet. Either way the
+				// producer will signal us when it publishes.
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * The same as {@link #poll()}, as events are taken off in order.
+	 * 
+	 * @see com.dmurph.mvc.queue.IEventQueue#evictOldest()
+	 */
+	public MVCEvent evictOldest() {
+		return poll();
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#take()
+	 */
+	public MVCEvent take() throws InterruptedException {
+		MVCEvent event = poll();
+		if (event != null) {
+			return event;
+		}
+		waiter = Thread.currentThread();
+		try {
+			// check again after publishing the waiter, so a producer
+			// that just missed it can't leave us parked
+			while ((event = poll()) == null && !wakeUpRequested) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+			return event;
+		} finally {
+			waiter = null;
+			wakeUpRequested = false;
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#wakeUp()
+	 */
+	public void wakeUp() {
+		wakeUpRequested = true;
+		signalConsumer();
+	}
+
+	private void signalConsumer() {
+		Thread thread = waiter;
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#isEmpty()
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * @see com.dmurph.mvc.queue.IEventQueue#size()
+	 */
+	public int size() {
+		long size = tail.get() - head.get();
+		if (size < 0) {
+			return 0;
+		}
+		return (int) Math.min(size, capacity);
+	}
+}
@@ -3,6 +3,10 @@
  */
 package com.dmurph.tests;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import junit.framework.TestCase;
 
 import com.dmurph.mvc.IEventListener;
@@ -10,6 +14,7 @@ import com.dmurph.mvc.IllegalThreadException;
 import com.dmurph.mvc.IncorrectThreadException;
 import com.dmurph.mvc.MVC;
 import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.ObjectEvent;
 
 /**
  * @author Daniel
@@ -27,6 +32,77 @@ public class BasicEventTest extends TestCase implements IEventListener {
 		_testEvent(true);
 	}
 	
+	public void testShardedKeysStayInOrder() {
+		MVC.stopDispatchThread(1000);
+		MVC.setDispatchShards(4);
+		
+		int numKeys = 8;
+		int numEach = 200;
+		final List<List<Integer>> received = new ArrayList<List<Integer>>();
+		for (int i = 0; i < numKeys; i++) {
+			final List<Integer> list = Collections.synchronizedList(new ArrayList<Integer>());
+			received.add(list);
+			MVC.addEventListener("shard" + i, new IEventListener() {
+				@SuppressWarnings("unchecked")
+				public boolean eventReceived(MVCEvent argEvent) {
+					list.add(((ObjectEvent<Integer>) argEvent).getValue());
+					return true;
+				}
+			});
+		}
+		for (int j = 0; j < numEach; j++) {
+			for (int i = 0; i < numKeys; i++) {
+				new ObjectEvent<Integer>("shard" + i, j).dispatch();
+			}
+		}
+		MVC.completeRemainingEvents(5000);
+		MVC.stopDispatchThread(1000);
+		MVC.setDispatchShards(1);
+		
+		for (int i = 0; i < numKeys; i++) {
+			List<Integer> list = received.get(i);
+			assertEquals(numEach, list.size());
+			for (int j = 0; j < numEach; j++) {
+				assertEquals(j, list.get(j).intValue());
+			}
+		}
+	}
+	
+	public void testDispatchNow() {
+		final Thread caller = Thread.currentThread();
+		final int[] received = new int[2];
+		IEventListener first = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				assertSame(caller, Thread.currentThread());
+				received[0]++;
+				boolean caught = false;
+				try {
+					argEvent.dispatchNow();
+				} catch (RuntimeException e) {
+					caught = true;
+				}
+				assertTrue(caught);
+				argEvent.stopPropagation();
+				return true;
+			}
+		};
+		IEventListener second = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received[1]++;
+				return true;
+			}
+		};
+		MVC.addEventListener("now", first);
+		MVC.addEventListener("now", second);
+		
+		new MVCEvent("now").dispatchNow();
+		assertEquals(1, received[0]);
+		assertEquals(0, received[1]);
+		
+		MVC.removeEventListener("now", first);
+		MVC.removeEventListener("now", second);
+	}
+	
 	public void _testEvent(boolean splitoff) {
 		this.splitOff = splitoff;
 		int numEventTypes = 5;
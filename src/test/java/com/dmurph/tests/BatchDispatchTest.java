@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:12:40 AM, Oct 19, 2026
+ */
+package com.dmurph.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.IBatchEventListener;
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.ObjectEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class BatchDispatchTest extends TestCase {
+	
+	public void testBatchDispatch() {
+		final List<Integer> batched = Collections.synchronizedList(new ArrayList<Integer>());
+		final List<Integer> single = Collections.synchronizedList(new ArrayList<Integer>());
+		final int[] calls = new int[1];
+		IBatchEventListener batch = new IBatchEventListener() {
+			public boolean eventsReceived(List<MVCEvent> argEvents) {
+				calls[0]++;
+				for (MVCEvent event : argEvents) {
+					batched.add((Integer) ((ObjectEvent<?>) event).getValue());
+				}
+				return true;
+			}
+			
+			public boolean eventReceived(MVCEvent argEvent) {
+				fail("Should have received a batch");
+				return true;
+			}
+		};
+		IEventListener listener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				single.add((Integer) ((ObjectEvent<?>) argEvent).getValue());
+				return true;
+			}
+		};
+		MVC.addEventListener("batch", batch);
+		MVC.addEventListener("batch", listener);
+		
+		List<MVCEvent> events = new ArrayList<MVCEvent>();
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < 100; i++) {
+			events.add(new ObjectEvent<Integer>("batch", i));
+			expected.add(i);
+		}
+		MVC.dispatchAll(events);
+		MVC.completeRemainingEvents(5000);
+		
+		assertEquals(expected, batched);
+		assertEquals(expected, single);
+		assertTrue(calls[0] <= expected.size());
+		
+		MVC.removeEventListener("batch", batch);
+		MVC.removeEventListener("batch", listener);
+	}
+	
+	public void testBatchAfterStoppedEvents() {
+		final List<Integer> batched = Collections.synchronizedList(new ArrayList<Integer>());
+		IEventListener stopper = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				if ((Integer) ((ObjectEvent<?>) argEvent).getValue() % 2 == 0) {
+					argEvent.stopPropagation();
+				}
+				return true;
+			}
+		};
+		IBatchEventListener batch = new IBatchEventListener() {
+			public boolean eventsReceived(List<MVCEvent> argEvents) {
+				for (MVCEvent event : argEvents) {
+					batched.add((Integer) ((ObjectEvent<?>) event).getValue());
+				}
+				return true;
+			}
+			
+			public boolean eventReceived(MVCEvent argEvent) {
+				fail("Should have received a batch");
+				return true;
+			}
+		};
+		MVC.addEventListener("stoppedBatch", stopper);
+		MVC.addEventListener("stoppedBatch", batch);
+		
+		List<MVCEvent> events = new ArrayList<MVCEvent>();
+		for (int i = 0; i < 9; i++) {
+			events.add(new ObjectEvent<Integer>("stoppedBatch", i));
+		}
+		MVC.dispatchAll(events);
+		MVC.completeRemainingEvents(5000);
+		
+		// the first and last of the run were stopped
+		assertEquals(Arrays.asList(1, 3, 5, 7), batched);
+		assertEquals(0, MVC.getInFlightEventCount());
+		
+		MVC.removeEventListener("stoppedBatch", stopper);
+		MVC.removeEventListener("stoppedBatch", batch);
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:42:17 AM, Oct 19, 2026
+ */
+package com.dmurph.tests;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.DispatchExecutors;
+import com.dmurph.mvc.EventBus;
+import com.dmurph.mvc.IBlockingEventListener;
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class BlockingListenerTest extends TestCase {
+
+	public void testRunsOnBlockingExecutor() throws InterruptedException {
+		EventBus bus = new EventBus("Blocking");
+		ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable argRunnable) {
+				Thread thread = new Thread(argRunnable, "Test Blocking Thread");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		bus.setBlockingExecutor(executor);
+		final Thread[] calledOn = new Thread[1];
+		final CountDownLatch blocking = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch later = new CountDownLatch(1);
+		bus.addEventListener("blocking", new IBlockingEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				calledOn[0] = Thread.currentThread();
+				blocking.countDown();
+				try {
+					release.await(2, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					fail(e.toString());
+				}
+				return true;
+			}
+		});
+		bus.addEventListener("later", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				later.countDown();
+				return true;
+			}
+		});
+		
+		bus.dispatchEvent(new MVCEvent("blocking"));
+		assertTrue(blocking.await(2, TimeUnit.SECONDS));
+		bus.dispatchEvent(new MVCEvent("later"));
+		
+		// received while the blocking listener is still waiting
+		assertTrue(later.await(2, TimeUnit.SECONDS));
+		assertFalse(calledOn[0] instanceof MVC);
+		assertEquals("Test Blocking Thread", calledOn[0].getName());
+		// the blocking call still counts as in flight
+		assertFalse(bus.awaitQuiescence(100, TimeUnit.MILLISECONDS));
+		assertTrue(bus.getInFlightEventCount() > 0);
+		
+		release.countDown();
+		assertTrue(bus.awaitQuiescence(2, TimeUnit.SECONDS));
+		assertEquals(0, bus.getInFlightEventCount());
+		bus.shutdown(1000);
+		executor.shutdown();
+	}
+
+	public void testBoundedExecutorLimitsConcurrency() throws InterruptedException {
+		EventBus bus = new EventBus("Bounded");
+		ExecutorService executor = DispatchExecutors.newBoundedExecutor(2);
+		bus.setBlockingExecutor(executor);
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger mostRunning = new AtomicInteger();
+		final CountDownLatch received = new CountDownLatch(6);
+		bus.addEventListener("bounded", new IBlockingEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				int now = running.incrementAndGet();
+				int most;
+				while ((most = mostRunning.get()) < now
+						&& !mostRunning.compareAndSet(most, now)) {}
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					fail(e.toString());
+				}
+				running.decrementAndGet();
+				received.countDown();
+				return true;
+			}
+		});
+		
+		for (int i = 0; i < 6; i++) {
+			bus.dispatchEvent(new MVCEvent("bounded"));
+		}
+		
+		assertTrue(received.await(5, TimeUnit.SECONDS));
+		assertTrue(bus.awaitQuiescence(2, TimeUnit.SECONDS));
+		assertEquals(2, mostRunning.get());
+		bus.shutdown(1000);
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:14:05 AM, Oct 19, 2026
+ */
+package com.dmurph.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.ObjectEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class CoalescingTest extends TestCase {
+	
+	public void testCoalescing() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+		IEventListener listener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.add((Integer) ((ObjectEvent<?>) argEvent).getValue());
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					fail(e.toString());
+				}
+				return true;
+			}
+		};
+		MVC.setCoalescing("coalesce", true);
+		MVC.addEventListener("coalesce", listener);
+		
+		new ObjectEvent<Integer>("coalesce", 0).dispatch();
+		assertTrue(started.await(2, TimeUnit.SECONDS));
+		for (int i = 1; i <= 100; i++) {
+			new ObjectEvent<Integer>("coalesce", i).dispatch();
+		}
+		release.countDown();
+		MVC.completeRemainingEvents(5000);
+		
+		assertEquals(Arrays.asList(0, 100), received);
+		assertEquals(0, MVC.getInFlightEventCount());
+		
+		MVC.removeEventListener("coalesce", listener);
+		MVC.setCoalescing("coalesce", false);
+	}
+}
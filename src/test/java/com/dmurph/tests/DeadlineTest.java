@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:15:31 AM, Oct 19, 2026
+ */
+package com.dmurph.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.ObjectEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class DeadlineTest extends TestCase {
+	
+	public void testDeadlines() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+		IEventListener listener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.add((Integer) ((ObjectEvent<?>) argEvent).getValue());
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					fail(e.toString());
+				}
+				return true;
+			}
+		};
+		MVC.addEventListener("deadline", listener);
+		
+		new ObjectEvent<Integer>("deadline", 0).dispatch();
+		assertTrue(started.await(2, TimeUnit.SECONDS));
+		long[] deadlines = { 10000, 5000, 1 };
+		for (int i = 0; i < deadlines.length; i++) {
+			MVCEvent event = new ObjectEvent<Integer>("deadline", i + 1);
+			event.setDeadline(deadlines[i], TimeUnit.MILLISECONDS);
+			event.dispatch();
+		}
+		new ObjectEvent<Integer>("deadline", 4).dispatch();
+		Thread.sleep(20);
+		release.countDown();
+		MVC.completeRemainingEvents(5000);
+		
+		// earliest deadline first, the expired one dropped
+		assertEquals(Arrays.asList(0, 2, 1, 4), received);
+		assertEquals(0, MVC.getInFlightEventCount());
+		
+		MVC.removeEventListener("deadline", listener);
+	}
+	
+	public void testSerializedDeadline() throws Exception {
+		MVCEvent event = new MVCEvent("serialized");
+		event.setPriority(MVCEvent.PRIORITY_LOW);
+		event.setDeadline(10, TimeUnit.SECONDS);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(event);
+		out.close();
+		MVCEvent read = (MVCEvent) new ObjectInputStream(new ByteArrayInputStream(bytes
+				.toByteArray())).readObject();
+		
+		assertEquals(MVCEvent.PRIORITY_LOW, read.getPriority());
+		assertTrue(read.hasDeadline());
+		long left = read.getDeadlineNanos() - System.nanoTime();
+		assertTrue(left > TimeUnit.SECONDS.toNanos(9) && left <= TimeUnit.SECONDS.toNanos(10));
+		assertFalse(read.isExpired());
+	}
+}
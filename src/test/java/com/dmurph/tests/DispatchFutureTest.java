@@ -0,0 +1,192 @@
+/**
+ * Created at Oct 18, 2026, 12:41:09 AM
+ */
+package com.dmurph.tests;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.DispatchFuture;
+import com.dmurph.mvc.EventBus;
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.IllegalThreadException;
+import com.dmurph.mvc.IncorrectThreadException;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.RequestEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class DispatchFutureTest extends TestCase {
+	
+	public void testRequest() throws Exception {
+		IEventListener doubler = new IEventListener() {
+			@SuppressWarnings("unchecked")
+			public boolean eventReceived(MVCEvent argEvent) {
+				RequestEvent<Integer> request = (RequestEvent<Integer>) argEvent;
+				request.respond(21 * 2);
+				return true;
+			}
+		};
+		MVC.addEventListener("double", doubler);
+		
+		DispatchFuture<Integer> future = new RequestEvent<Integer>("double").request();
+		assertEquals(42, future.get(2, TimeUnit.SECONDS).intValue());
+		
+		MVC.removeEventListener("double", doubler);
+		assertNull(new RequestEvent<Integer>("double").request().get(2, TimeUnit.SECONDS));
+	}
+	
+	public void testWaitsForSplitOff() throws Exception {
+		final boolean[] finished = new boolean[1];
+		IEventListener slow = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				try {
+					MVC.splitOff();
+					Thread.sleep(200);
+				} catch (IllegalThreadException e) {
+					fail(e.toString());
+				} catch (IncorrectThreadException e) {
+					fail(e.toString());
+				} catch (InterruptedException e) {
+					fail(e.toString());
+				}
+				finished[0] = true;
+				return true;
+			}
+		};
+		MVC.addEventListener("slow", slow);
+		
+		new MVCEvent("slow").dispatchAsync().get(2, TimeUnit.SECONDS);
+		assertTrue(finished[0]);
+		
+		MVC.removeEventListener("slow", slow);
+	}
+	
+	public void testQuiescence() throws Exception {
+		final int[] received = new int[1];
+		IEventListener slow = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				try {
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					fail(e.toString());
+				}
+				received[0]++;
+				return true;
+			}
+		};
+		MVC.addEventListener("quiet", slow);
+		
+		for (int i = 0; i < 20; i++) {
+			new MVCEvent("quiet").dispatch();
+		}
+		DispatchFuture<Void> future = MVC.awaitQuiescence();
+		assertTrue(MVC.awaitQuiescence(2, TimeUnit.SECONDS));
+		assertEquals(20, received[0]);
+		assertEquals(0, MVC.getInFlightEventCount());
+		future.get(2, TimeUnit.SECONDS);
+		
+		MVC.removeEventListener("quiet", slow);
+	}
+	
+	public void testListenerException() throws Exception {
+		IEventListener thrower = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				throw new IllegalStateException("Expected");
+			}
+		};
+		MVC.addEventListener("throw", thrower);
+		
+		boolean caught = false;
+		try {
+			new MVCEvent("throw").dispatchAsync().get(2, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			caught = e.getCause() instanceof IllegalStateException;
+		}
+		assertTrue(caught);
+		
+		MVC.removeEventListener("throw", thrower);
+	}
+	
+	public void testDroppedEvents() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		IEventListener slow = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					fail(e.toString());
+				}
+				return true;
+			}
+		};
+		MVC.setCoalescing("drop", true);
+		MVC.addEventListener("drop", slow);
+		
+		new MVCEvent("drop").dispatch();
+		assertTrue(started.await(2, TimeUnit.SECONDS));
+		DispatchFuture<Void> coalesced = new MVCEvent("drop").dispatchAsync();
+		DispatchFuture<Void> latest = new MVCEvent("drop").dispatchAsync();
+		MVCEvent expiring = new MVCEvent("drop.expired");
+		MVC.addEventListener("drop.expired", slow);
+		expiring.setDeadline(1, TimeUnit.MILLISECONDS);
+		DispatchFuture<Void> expired = expiring.dispatchAsync();
+		Thread.sleep(20);
+		release.countDown();
+		
+		latest.get(2, TimeUnit.SECONDS);
+		assertFalse(latest.isCancelled());
+		assertCancelled(coalesced);
+		assertCancelled(expired);
+		
+		MVC.removeEventListener("drop", slow);
+		MVC.removeEventListener("drop.expired", slow);
+		MVC.setCoalescing("drop", false);
+	}
+	
+	private static void assertCancelled(DispatchFuture<Void> argFuture) throws Exception {
+		boolean caught = false;
+		try {
+			argFuture.get(2, TimeUnit.SECONDS);
+		} catch (CancellationException e) {
+			caught = true;
+		}
+		assertTrue(caught);
+		assertTrue(argFuture.isCancelled());
+	}
+	
+	public void testInstanceBus() throws Exception {
+		EventBus bus = new EventBus("Futures");
+		bus.addEventListener("bus.request", new IEventListener() {
+			@SuppressWarnings("unchecked")
+			public boolean eventReceived(MVCEvent argEvent) {
+				((RequestEvent<String>) argEvent).respond("from the bus");
+				return true;
+			}
+		});
+		RequestEvent<String> request = new RequestEvent<String>("bus.request");
+		assertEquals("from the bus", bus.request(request).get(2, TimeUnit.SECONDS));
+		final int[] received = new int[1];
+		bus.addEventListener("bus.async", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received[0]++;
+				return true;
+			}
+		});
+		bus.dispatchAsync(new MVCEvent("bus.async")).get(2, TimeUnit.SECONDS);
+		assertEquals(1, received[0]);
+		
+		// not sent to the default bus
+		RequestEvent<String> unheard = new RequestEvent<String>("bus.request");
+		assertNull(unheard.request().get(2, TimeUnit.SECONDS));
+		bus.shutdown(1000);
+	}
+}
@@ -0,0 +1,342 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 2:03:19 PM, Oct 18, 2026
+ */
+package com.dmurph.tests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.EventBus;
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.IGlobalEventMonitor;
+import com.dmurph.mvc.IllegalThreadException;
+import com.dmurph.mvc.IncorrectThreadException;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.monitor.WarningMonitor;
+
+/**
+ * @author Daniel Murphy
+ */
+public class EventBusTest extends TestCase {
+
+	public void testIndependentBuses() throws InterruptedException {
+		EventBus first = new EventBus("First");
+		EventBus second = new EventBus("Second");
+		final String[] threadNames = new String[2];
+		final int[] received = new int[2];
+		first.addEventListener("bus", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				threadNames[0] = Thread.currentThread().getName();
+				received[0]++;
+				return true;
+			}
+		});
+		second.addEventListener("bus", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				threadNames[1] = Thread.currentThread().getName();
+				received[1]++;
+				return true;
+			}
+		});
+		assertTrue(MVC.getListeners("bus").isEmpty());
+		
+		first.dispatchEvent(new MVCEvent("bus"));
+		first.dispatchEvent(new MVCEvent("bus"));
+		second.dispatchEvent(new MVCEvent("bus"));
+		// nothing listens on the default bus
+		new MVCEvent("bus").dispatch();
+		assertTrue(first.awaitQuiescence(2, TimeUnit.SECONDS));
+		assertTrue(second.awaitQuiescence(2, TimeUnit.SECONDS));
+		
+		assertEquals(2, received[0]);
+		assertEquals(1, received[1]);
+		assertTrue(threadNames[0].startsWith("First Thread"));
+		assertTrue(threadNames[1].startsWith("Second Thread"));
+		
+		first.stopDispatchThread(1000);
+		second.stopDispatchThread(1000);
+	}
+	
+	public void testMainThreadOfDefaultBus() throws InterruptedException {
+		final EventBus bus = new EventBus("Main Thread");
+		final boolean[] main = new boolean[2];
+		final CountDownLatch received = new CountDownLatch(1);
+		bus.addEventListener("main", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				main[0] = MVC.isMainMVCThread();
+				main[1] = bus.isMainDispatchThread();
+				received.countDown();
+				return true;
+			}
+		});
+		bus.dispatchEvent(new MVCEvent("main"));
+		assertTrue(received.await(2, TimeUnit.SECONDS));
+		
+		assertFalse(main[0]);
+		assertTrue(main[1]);
+		bus.shutdown(1000);
+	}
+
+	public void testSplitOffFromBus() throws InterruptedException {
+		final EventBus bus = new EventBus("Splitting");
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(2);
+		bus.addEventListener("slow", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				try {
+					assertTrue(bus.isMainDispatchThread());
+					MVC.splitOff();
+					release.await(2, TimeUnit.SECONDS);
+				} catch (IllegalThreadException e) {
+					fail(e.toString());
+				} catch (IncorrectThreadException e) {
+					fail(e.toString());
+				} catch (InterruptedException e) {
+				}
+				done.countDown();
+				return true;
+			}
+		});
+		bus.addEventListener("fast", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				release.countDown();
+				done.countDown();
+				return true;
+			}
+		});
+		bus.dispatchEvent(new MVCEvent("slow"));
+		bus.dispatchEvent(new MVCEvent("fast"));
+		assertTrue(done.await(2, TimeUnit.SECONDS));
+		assertEquals(1, bus.getSplitOffCount());
+		bus.stopDispatchThread(1000);
+	}
+
+	public void testWatchdog() throws InterruptedException {
+		final EventBus bus = new EventBus("Watchdog");
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch stalled = new CountDownLatch(1);
+		final IEventListener[] stalledListener = new IEventListener[1];
+		final String[] stalledKey = new String[1];
+		bus.setGlobalEventMonitor(new WarningMonitor() {
+			@Override
+			public void listenerStalled(MVCEvent argEvent,
+					IEventListener argListener, long argElapsedNanos,
+					StackTraceElement[] argStack) {
+				stalledKey[0] = argEvent.key;
+				stalledListener[0] = argListener;
+				stalled.countDown();
+			}
+		});
+		IEventListener slow = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				try {
+					release.await(2, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+				}
+				return true;
+			}
+		};
+		bus.addEventListener("slow", slow);
+		bus.addEventListener("fast", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				release.countDown();
+				return true;
+			}
+		});
+		bus.setWatchdog(50, TimeUnit.MILLISECONDS, true);
+		bus.dispatchEvent(new MVCEvent("slow"));
+		bus.dispatchEvent(new MVCEvent("fast"));
+		assertTrue(stalled.await(2, TimeUnit.SECONDS));
+		assertEquals("slow", stalledKey[0]);
+		assertSame(slow, stalledListener[0]);
+		// the slow listener was split off, so the fast one let it go
+		assertTrue(release.await(2, TimeUnit.SECONDS));
+		assertTrue(bus.awaitQuiescence(2, TimeUnit.SECONDS));
+		assertEquals(1, bus.getSplitOffCount());
+		bus.clearWatchdog();
+		bus.stopDispatchThread(1000);
+	}
+
+	public void testShutdown() throws InterruptedException {
+		final EventBus bus = new EventBus("Shutdown");
+		final CountDownLatch received = new CountDownLatch(2);
+		bus.addEventListener("shutdown", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.countDown();
+				return true;
+			}
+		});
+		bus.addEventListener("slow", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				try {
+					bus.splitOff();
+				} catch (IllegalThreadException e) {
+					fail(e.toString());
+				} catch (IncorrectThreadException e) {
+					fail(e.toString());
+				}
+				received.countDown();
+				return true;
+			}
+		});
+		bus.setWatchdog(1, TimeUnit.SECONDS, false);
+		bus.dispatchEvery("never", 1, TimeUnit.HOURS);
+		bus.dispatchEvent(new MVCEvent("slow"));
+		bus.dispatchEvent(new MVCEvent("shutdown"));
+		assertTrue(received.await(2, TimeUnit.SECONDS));
+		assertTrue(bus.awaitQuiescence(2, TimeUnit.SECONDS));
+		
+		bus.shutdown(1000);
+		assertTrue(bus.isShutdown());
+		assertEquals(0, bus.getScheduledDispatchCount());
+		// idle split off threads finish once they're woken up
+		long deadline = System.currentTimeMillis() + 2000;
+		while (!busThreads("Shutdown").isEmpty()
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(Collections.<String> emptyList(), busThreads("Shutdown"));
+		try {
+			bus.dispatchEvent(new MVCEvent("shutdown"));
+			fail("Dispatched to a bus that was shut down");
+		} catch (RuntimeException e) {
+		}
+	}
+
+	public void testShutdownWithQueuedEvents() throws InterruptedException {
+		final EventBus bus = new EventBus("Shutdown Queued");
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<MVCEvent> received = Collections.synchronizedList(new ArrayList<MVCEvent>());
+		bus.addEventListener("queued", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.add(argEvent);
+				started.countDown();
+				try {
+					release.await(2, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					fail(e.toString());
+				}
+				return true;
+			}
+		});
+		for (int i = 0; i < 20; i++) {
+			bus.dispatchEvent(new MVCEvent("queued"));
+		}
+		assertTrue(started.await(2, TimeUnit.SECONDS));
+		new Thread() {
+			public void run() {
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+				}
+				release.countDown();
+			}
+		}.start();
+		
+		bus.shutdown(2000);
+		
+		assertTrue(received.size() < 20);
+		assertEquals(0, bus.getInFlightEventCount());
+		assertTrue(bus.awaitQuiescence(1, TimeUnit.SECONDS));
+	}
+
+	public void testShutdownWithDebouncedEvent() throws InterruptedException {
+		EventBus bus = new EventBus("Shutdown Debounced");
+		final List<MVCEvent> received = Collections.synchronizedList(new ArrayList<MVCEvent>());
+		bus.addEventListener("debounced", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.add(argEvent);
+				return true;
+			}
+		});
+		bus.setDebounce("debounced", 1, TimeUnit.HOURS);
+		bus.dispatchEvent(new MVCEvent("debounced"));
+		assertEquals(1, bus.getInFlightEventCount());
+		
+		bus.shutdown(1000);
+		
+		assertEquals(0, bus.getInFlightEventCount());
+		assertTrue(bus.awaitQuiescence(1, TimeUnit.SECONDS));
+		assertTrue(received.isEmpty());
+	}
+
+	public void testPlainMonitor() throws InterruptedException {
+		EventBus bus = new EventBus("Plain Monitor");
+		final List<String> dispatched = Collections.synchronizedList(new ArrayList<String>());
+		// only knows the original callbacks, so it isn't told about the
+		// coalesced event
+		bus.setGlobalEventMonitor(new IGlobalEventMonitor() {
+			public void noListeners(MVCEvent argEvent) {}
+			
+			public void beforeDispatch(MVCEvent argEvent) {
+				dispatched.add(argEvent.key);
+			}
+			
+			public void afterDispatch(MVCEvent argEvent) {}
+			
+			public void exceptionThrown(MVCEvent argEvent, Exception argException) {}
+		});
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		bus.addEventListener("plain", new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				started.countDown();
+				try {
+					release.await(2, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					fail(e.toString());
+				}
+				return true;
+			}
+		});
+		bus.setCoalescing("plain", true);
+		
+		bus.dispatchEvent(new MVCEvent("plain"));
+		assertTrue(started.await(2, TimeUnit.SECONDS));
+		bus.dispatchEvent(new MVCEvent("plain"));
+		bus.dispatchEvent(new MVCEvent("plain"));
+		release.countDown();
+		assertTrue(bus.awaitQuiescence(2, TimeUnit.SECONDS));
+		
+		assertEquals(2, dispatched.size());
+		bus.shutdown(1000);
+	}
+
+	private static List<String> busThreads(String argName) {
+		List<String> names = new ArrayList<String>();
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.isAlive() && thread.getName().startsWith(argName)) {
+				names.add(thread.getName());
+			}
+		}
+		return names;
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:22:54 AM, Oct 19, 2026
+ */
+package com.dmurph.tests;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.EventKey;
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class EventKeyTest extends TestCase {
+	
+	public void testEventKeys() {
+		EventKey key = EventKey.of("interned");
+		assertSame(key, EventKey.of("interned"));
+		assertSame(key, EventKey.find("interned"));
+		assertNull(EventKey.find("never.interned"));
+		
+		final int[] received = new int[1];
+		IEventListener listener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received[0]++;
+				return true;
+			}
+		};
+		MVC.addEventListener(key, listener);
+		new MVCEvent(key).dispatch();
+		new MVCEvent("interned").dispatch();
+		MVC.completeRemainingEvents(2000);
+		assertEquals(2, received[0]);
+		assertTrue(MVC.removeEventListener(key, listener));
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:24:16 AM, Oct 19, 2026
+ */
+package com.dmurph.tests;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.EventFilters;
+import com.dmurph.mvc.IEventFilter;
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.ObjectEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class FilteredListenerTest extends TestCase {
+	
+	public void testFilteredListeners() {
+		final int[] checks = new int[1];
+		final int[] received = new int[2];
+		IEventFilter counting = new IEventFilter() {
+			public boolean accept(MVCEvent argEvent) {
+				checks[0]++;
+				return ((ObjectEvent<?>) argEvent).getValue() instanceof String;
+			}
+		};
+		IEventListener first = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received[0]++;
+				return true;
+			}
+		};
+		IEventListener second = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received[1]++;
+				return true;
+			}
+		};
+		MVC.addEventListener("filtered", counting, first);
+		MVC.addEventListener("filtered", counting, second);
+		assertTrue(MVC.isEventListener("filtered", first));
+		
+		new ObjectEvent<Object>("filtered", "yes").dispatch();
+		new ObjectEvent<Object>("filtered", Integer.valueOf(1)).dispatch();
+		new ObjectEvent<Object>("filtered", "again").dispatch();
+		MVC.completeRemainingEvents(2000);
+		assertEquals(2, received[0]);
+		assertEquals(2, received[1]);
+		// the filter is shared, so it's checked once per event
+		assertEquals(3, checks[0]);
+		
+		assertTrue(MVC.removeEventListener("filtered", first));
+		assertTrue(MVC.removeEventListener("filtered", second));
+		
+		assertEquals(EventFilters.valueInstanceOf(String.class),
+				EventFilters.valueInstanceOf(String.class));
+		MVC.addEventListener("filtered", EventFilters.valueInstanceOf(Integer.class), first);
+		new ObjectEvent<Object>("filtered", "no").dispatchNow();
+		new ObjectEvent<Object>("filtered", Integer.valueOf(2)).dispatchNow();
+		assertEquals(3, received[0]);
+		assertTrue(MVC.removeEventListener("filtered", first));
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 5:02:36 PM, Oct 18, 2026
+ */
+package com.dmurph.tests;
+
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.EventBus;
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.LatencyHistogram;
+import com.dmurph.mvc.MVCEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class LatencyHistogramTest extends TestCase {
+
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getValueAtPercentile(99));
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1000000, histogram.getMax());
+		assertTrue(Math.abs(histogram.getMean() - 500500) < 0.001);
+		assertWithin(500000, histogram.getValueAtPercentile(50));
+		assertWithin(990000, histogram.getValueAtPercentile(99));
+		assertWithin(999000, histogram.getValueAtPercentile(99.9));
+		assertEquals(1000000, histogram.getValueAtPercentile(100));
+		assertEquals(1, histogram.getValueAtPercentile(100, TimeUnit.MILLISECONDS));
+		
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		histogram.record(7);
+		histogram.record(-5);
+		assertEquals(7, histogram.getValueAtPercentile(100));
+		assertEquals(0, histogram.getValueAtPercentile(50));
+	}
+
+	private void assertWithin(long argExpected, long argActual) {
+		assertTrue(argActual + " isn't close to " + argExpected,
+				argActual >= argExpected && argActual <= argExpected * 1.07);
+	}
+
+	public void testDispatchLatency() throws InterruptedException {
+		EventBus bus = new EventBus("Latency");
+		IEventListener slow = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException e) {
+				}
+				return true;
+			}
+		};
+		bus.addEventListener("latency", slow);
+		assertNull(bus.getQueueWaitHistogram("latency"));
+		bus.setLatencyTracking(true);
+		MVCEvent last = null;
+		for (int i = 0; i < 3; i++) {
+			last = new MVCEvent("latency");
+			bus.dispatchEvent(last);
+		}
+		assertTrue(bus.awaitQuiescence(2, TimeUnit.SECONDS));
+
+		LatencyHistogram wait = bus.getQueueWaitHistogram("latency");
+		assertEquals(3, wait.getCount());
+		// the last one waited for the first two
+		assertTrue(last.getQueueWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(35));
+		assertTrue(wait.getMax() >= last.getQueueWaitNanos());
+
+		LatencyHistogram service = bus.getServiceTimeHistogram("latency", slow.getClass());
+		assertEquals(3, service.getCount());
+		assertTrue(service.getValueAtPercentile(50) >= TimeUnit.MILLISECONDS.toNanos(20));
+		assertEquals(1, bus.getServiceTimeHistograms("latency").size());
+		assertTrue(bus.getLatencyKeys().contains("latency"));
+
+		bus.setLatencyTracking(false);
+		assertNull(bus.getQueueWaitHistogram("latency"));
+		bus.stopDispatchThread(1000);
+	}
+}
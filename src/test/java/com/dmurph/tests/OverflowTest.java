@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 11:40:26 AM, Oct 17, 2026
+ */
+package com.dmurph.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.ObjectEvent;
+import com.dmurph.mvc.OverflowPolicy;
+
+/**
+ * @author Daniel Murphy
+ */
+public class OverflowTest extends TestCase {
+	
+	private final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+	private CountDownLatch started;
+	private CountDownLatch release;
+	
+	private final IEventListener listener = new IEventListener() {
+		public boolean eventReceived(MVCEvent argEvent) {
+			received.add((Integer) ((ObjectEvent<?>) argEvent).getValue());
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				fail(e.toString());
+			}
+			return true;
+		}
+	};
+	
+	@Override
+	protected void setUp() throws Exception {
+		MVC.completeRemainingEvents(5000);
+		MVC.stopDispatchThread(1000);
+		MVC.setQueueCapacity(2);
+		MVC.addEventListener("overflow", listener);
+	}
+	
+	@Override
+	protected void tearDown() throws Exception {
+		MVC.removeEventListener("overflow", listener);
+		MVC.setOverflowPolicy(OverflowPolicy.BLOCK);
+		MVC.completeRemainingEvents(5000);
+		MVC.stopDispatchThread(1000);
+		MVC.setDispatchShards(1);
+	}
+	
+	public void testDropNewest() throws InterruptedException {
+		MVC.setOverflowPolicy(OverflowPolicy.DROP_NEWEST);
+		fillQueue(false);
+		assertEquals(Arrays.asList(0, 1, 2), received);
+	}
+	
+	public void testDropOldest() throws InterruptedException {
+		MVC.setOverflowPolicy(OverflowPolicy.DROP_OLDEST);
+		fillQueue(false);
+		assertEquals(Arrays.asList(0, 9, 10), received);
+	}
+	
+	public void testBlockTimesOut() throws InterruptedException {
+		MVC.setOverflowPolicy(OverflowPolicy.BLOCK, 10, TimeUnit.MILLISECONDS);
+		fillQueue(false);
+		assertEquals(Arrays.asList(0, 1, 2), received);
+	}
+	
+	public void testDispatchAllDropNewest() throws InterruptedException {
+		MVC.setOverflowPolicy(OverflowPolicy.DROP_NEWEST);
+		fillQueue(true);
+		assertEquals(Arrays.asList(0, 1, 2), received);
+	}
+	
+	public void testDispatchAllDropOldest() throws InterruptedException {
+		MVC.setOverflowPolicy(OverflowPolicy.DROP_OLDEST);
+		fillQueue(true);
+		assertEquals(Arrays.asList(0, 9, 10), received);
+	}
+	
+	public void testDispatchAllBlockTimesOut() throws InterruptedException {
+		MVC.setOverflowPolicy(OverflowPolicy.BLOCK, 10, TimeUnit.MILLISECONDS);
+		fillQueue(true);
+		assertEquals(Arrays.asList(0, 1, 2), received);
+	}
+	
+	public void testListenerDispatchingToOwnFullQueue() throws InterruptedException {
+		final List<Integer> followUps = Collections.synchronizedList(new ArrayList<Integer>());
+		final CountDownLatch done = new CountDownLatch(1);
+		IEventListener followUp = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				followUps.add((Integer) ((ObjectEvent<?>) argEvent).getValue());
+				return true;
+			}
+		};
+		IEventListener reentrant = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				// more than the queue holds, and only this thread drains it
+				for (int i = 0; i < 5; i++) {
+					new ObjectEvent<Integer>("followUp", i).dispatch();
+				}
+				done.countDown();
+				return true;
+			}
+		};
+		MVC.addEventListener("followUp", followUp);
+		MVC.addEventListener("reentrant", reentrant);
+		try {
+			new MVCEvent("reentrant").dispatch();
+			assertTrue(done.await(2, TimeUnit.SECONDS));
+			MVC.completeRemainingEvents(5000);
+			// the ones that didn't fit were run right away
+			assertEquals(Arrays.asList(2, 3, 4, 0, 1), followUps);
+		} finally {
+			MVC.removeEventListener("followUp", followUp);
+			MVC.removeEventListener("reentrant", reentrant);
+		}
+	}
+	
+	/**
+	 * Holds up the listener with the first event, then dispatches ten more
+	 * to a queue that only holds two.
+	 * 
+	 * @param argBatch
+	 *            if the ten are dispatched with {@link MVC#dispatchAll}
+	 */
+	private void fillQueue(boolean argBatch) throws InterruptedException {
+		started = new CountDownLatch(1);
+		release = new CountDownLatch(1);
+		new ObjectEvent<Integer>("overflow", 0).dispatch();
+		assertTrue(started.await(2, TimeUnit.SECONDS));
+		List<MVCEvent> events = new ArrayList<MVCEvent>();
+		for (int i = 1; i <= 10; i++) {
+			events.add(new ObjectEvent<Integer>("overflow", i));
+		}
+		if (argBatch) {
+			MVC.dispatchAll(events);
+		} else {
+			for (MVCEvent event : events) {
+				event.dispatch();
+			}
+		}
+		release.countDown();
+		MVC.completeRemainingEvents(5000);
+		assertEquals(0, MVC.getInFlightEventCount());
+	}
+}
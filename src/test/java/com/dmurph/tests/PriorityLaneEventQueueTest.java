@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 1:52:09 PM, Oct 17, 2026
+ */
+package com.dmurph.tests;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.queue.PriorityLaneEventQueue;
+
+/**
+ * @author Daniel Murphy
+ */
+public class PriorityLaneEventQueueTest extends TestCase {
+	
+	public void testStrictOrder() {
+		PriorityLaneEventQueue queue = new PriorityLaneEventQueue(3, 0);
+		MVCEvent low = event(MVCEvent.PRIORITY_LOW);
+		MVCEvent normal = new MVCEvent("lanes");
+		MVCEvent high = event(MVCEvent.PRIORITY_HIGH);
+		queue.offer(low);
+		queue.offer(normal);
+		queue.offer(high);
+		
+		int[] depths = queue.getLaneDepths();
+		assertEquals(1, depths[0]);
+		assertEquals(1, depths[1]);
+		assertEquals(1, depths[2]);
+		assertSame(high, queue.poll());
+		assertSame(normal, queue.poll());
+		assertSame(low, queue.poll());
+		assertNull(queue.poll());
+	}
+	
+	public void testEvictOldest() {
+		PriorityLaneEventQueue queue = new PriorityLaneEventQueue(3, 0);
+		MVCEvent high = event(MVCEvent.PRIORITY_HIGH);
+		MVCEvent firstLow = event(MVCEvent.PRIORITY_LOW);
+		MVCEvent secondLow = event(MVCEvent.PRIORITY_LOW);
+		MVCEvent normal = new MVCEvent("lanes");
+		queue.offer(high);
+		queue.offer(firstLow);
+		queue.offer(secondLow);
+		queue.offer(normal);
+		
+		assertSame(firstLow, queue.evictOldest());
+		assertSame(secondLow, queue.evictOldest());
+		assertSame(normal, queue.evictOldest());
+		assertEquals(1, queue.size());
+		assertSame(high, queue.poll());
+		assertNull(queue.evictOldest());
+	}
+	
+	public void testKeyPriority() {
+		PriorityLaneEventQueue queue = new PriorityLaneEventQueue();
+		MVC.setPriority("lanes.urgent", MVCEvent.PRIORITY_HIGH);
+		MVCEvent normal = new MVCEvent("lanes");
+		MVCEvent urgent = new MVCEvent("lanes.urgent");
+		queue.offer(normal);
+		queue.offer(urgent);
+		assertSame(urgent, queue.poll());
+		assertSame(normal, queue.poll());
+		MVC.setPriority("lanes.urgent", -1);
+	}
+	
+	public void testStarvationLimit() {
+		PriorityLaneEventQueue queue = new PriorityLaneEventQueue(2, 3);
+		MVCEvent low = event(1);
+		queue.offer(low);
+		for (int i = 0; i < 10; i++) {
+			queue.offer(event(0));
+		}
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, queue.poll().getPriority());
+		}
+		assertSame(low, queue.poll());
+	}
+	
+	public void testWeightedOrder() {
+		PriorityLaneEventQueue queue = new PriorityLaneEventQueue(new int[]{ 2, 1 });
+		for (int i = 0; i < 6; i++) {
+			queue.offer(event(0));
+			queue.offer(event(1));
+		}
+		int[] expected = { 0, 0, 1, 0, 0, 1, 0, 0, 1, 1, 1, 1 };
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], queue.poll().getPriority());
+		}
+	}
+	
+	private static MVCEvent event(int argPriority) {
+		MVCEvent event = new MVCEvent("lanes");
+		event.setPriority(argPriority);
+		return event;
+	}
+}
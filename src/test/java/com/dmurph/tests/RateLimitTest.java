@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:17:12 AM, Oct 19, 2026
+ */
+package com.dmurph.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.ObjectEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class RateLimitTest extends TestCase {
+	
+	public void testDebounce() {
+		final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+		IEventListener listener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.add((Integer) ((ObjectEvent<?>) argEvent).getValue());
+				return true;
+			}
+		};
+		MVC.addEventListener("rate.debounce", listener);
+		MVC.setDebounce("rate.debounce", 50, TimeUnit.MILLISECONDS);
+		
+		for (int i = 0; i < 20; i++) {
+			new ObjectEvent<Integer>("rate.debounce", i).dispatch();
+		}
+		MVC.completeRemainingEvents(2000);
+		assertEquals(Arrays.asList(19), received);
+		
+		MVC.clearRateLimit("rate.debounce");
+		MVC.removeEventListener("rate.debounce", listener);
+	}
+	
+	public void testThrottle() {
+		final AtomicInteger received = new AtomicInteger();
+		IEventListener listener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.incrementAndGet();
+				return true;
+			}
+		};
+		MVC.addEventListener("rate.throttle", listener);
+		MVC.setThrottle("rate.throttle", 3, 10, TimeUnit.SECONDS);
+		
+		for (int i = 0; i < 10; i++) {
+			new MVCEvent("rate.throttle").dispatch();
+		}
+		MVC.completeRemainingEvents(2000);
+		assertEquals(3, received.get());
+		
+		MVC.clearRateLimit("rate.throttle");
+		MVC.removeEventListener("rate.throttle", listener);
+	}
+}
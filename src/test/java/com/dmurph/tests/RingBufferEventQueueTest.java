@@ -0,0 +1,77 @@
+/**
+ * Created at Oct 17, 2026, 5:02:44 PM
+ */
+package com.dmurph.tests;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.queue.LinkedEventQueue;
+import com.dmurph.mvc.queue.RingBufferEventQueue;
+
+/**
+ * @author Daniel Murphy
+ */
+public class RingBufferEventQueueTest extends TestCase implements IEventListener {
+	
+	private volatile int received = 0;
+	
+	public void testWrapAround() {
+		RingBufferEventQueue queue = new RingBufferEventQueue(5);
+		assertEquals(8, queue.getCapacity());
+		
+		for (int lap = 0; lap < 3; lap++) {
+			MVCEvent[] events = new MVCEvent[8];
+			for (int i = 0; i < 8; i++) {
+				events[i] = new MVCEvent("ring");
+				assertTrue(queue.offer(events[i]));
+			}
+			assertFalse(queue.offer(new MVCEvent("ring")));
+			assertEquals(8, queue.size());
+			
+			for (int i = 0; i < 8; i++) {
+				assertSame(events[i], queue.poll());
+			}
+			assertNull(queue.poll());
+			assertTrue(queue.isEmpty());
+		}
+	}
+	
+	public void testManyProducers() throws InterruptedException {
+		MVC.stopDispatchThread(1000);
+		MVC.setEventQueue(new RingBufferEventQueue(64));
+		MVC.addEventListener("ring", this);
+		
+		final int numThreads = 4;
+		final int numEach = 1000;
+		Thread[] producers = new Thread[numThreads];
+		for (int i = 0; i < numThreads; i++) {
+			producers[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < numEach; j++) {
+						new MVCEvent("ring").dispatch();
+					}
+				}
+			};
+			producers[i].start();
+		}
+		for (Thread producer : producers) {
+			producer.join();
+		}
+		MVC.completeRemainingEvents(5000);
+		
+		MVC.removeEventListener("ring", this);
+		MVC.stopDispatchThread(1000);
+		MVC.setEventQueue(new LinkedEventQueue());
+		
+		assertEquals(numThreads * numEach, received);
+	}
+	
+	public boolean eventReceived(MVCEvent argEvent) {
+		received++;
+		return true;
+	}
+}
@@ -24,7 +24,10 @@
  */
 package com.dmurph.tests;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.dmurph.mvc.IEventListener;
 import com.dmurph.mvc.IllegalThreadException;
@@ -47,6 +50,7 @@ public class SplitOffTest extends TestCase implements IEventListener{
 			event.dispatch();
 		}
 		MVC.completeRemainingEvents(1000);
+		MVC.removeEventListener("SplitOff", this);
 	}
 	
 	public void testIllegalThread() {
@@ -64,13 +68,76 @@ public class SplitOffTest extends TestCase implements IEventListener{
 	
 	public HashSet<Thread> threads = new HashSet<Thread>();
 	
-	public boolean eventReceived(MVCEvent argEvent) {
+	public void testSplitOffThreadsAreReused(){
+		MVC.addEventListener("SplitOff", this);
+		long created = MVC.getSplitOffThreadsCreated();
+		MVCEvent event = new MVCEvent("SplitOff");
+		int dispatches = 10;
+		for(int i=0; i<dispatches; i++) {
+			event.dispatch();
+			MVC.completeRemainingEvents(1000);
+		}
+		MVC.removeEventListener("SplitOff", this);
 		
-		System.out.println("Recieved thread: "+Thread.currentThread().getName()+", "+Thread.currentThread().getId());
-		if(threads.contains(Thread.currentThread())){
-			fail("Thread was already encountered");
+		// threads go back to the pool once their listener returns
+		assertTrue(MVC.getSplitOffThreadsCreated() - created < dispatches);
+		assertEquals(0, MVC.getActiveSplitOffCount());
+	}
+	
+	public void testMaxSplitOffs(){
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger mostRunning = new AtomicInteger();
+		final Set<Thread> listenerThreads = Collections.synchronizedSet(new HashSet<Thread>());
+		IEventListener capped = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				try {
+					MVC.splitOff();
+				} catch (IllegalThreadException e) {
+					fail(e.toString());
+				} catch (IncorrectThreadException e) {
+					fail(e.toString());
+				}
+				listenerThreads.add(Thread.currentThread());
+				int now = running.incrementAndGet();
+				synchronized (mostRunning) {
+					mostRunning.set(Math.max(mostRunning.get(), now));
+				}
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					fail(e.toString());
+				}
+				running.decrementAndGet();
+				return true;
+			}
+		};
+		int max = MVC.getMaxSplitOffs();
+		MVC.setMaxSplitOffs(2);
+		MVC.addEventListener("SplitOff.capped", capped);
+		long created = MVC.getSplitOffThreadsCreated();
+		int dispatches = 8;
+		try {
+			for(int i=0; i<dispatches; i++) {
+				new MVCEvent("SplitOff.capped").dispatch();
+			}
+			MVC.completeRemainingEvents(5000);
+		} finally {
+			MVC.removeEventListener("SplitOff.capped", capped);
+			MVC.setMaxSplitOffs(max);
 		}
 		
+		// the dispatch thread waits for a split off to finish before the
+		// third one, and the finished ones are handed the next event
+		assertEquals(2, mostRunning.get());
+		assertTrue(MVC.getSplitOffThreadsCreated() - created < dispatches);
+		assertTrue(listenerThreads.size() < dispatches);
+		assertEquals(0, MVC.getActiveSplitOffCount());
+	}
+	
+	public boolean eventReceived(MVCEvent argEvent) {
+		
+		System.out.println("Recieved thread: "+Thread.currentThread().getName()+", "+Thread.currentThread().getId());
+		// split off threads are pooled, so the same thread can come back
 		threads.add(Thread.currentThread());
 		try {
 			MVC.splitOff();
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:18:48 AM, Oct 19, 2026
+ */
+package com.dmurph.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.ObjectEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class StickyEventTest extends TestCase {
+	
+	public void testStickyReplay() {
+		final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+		final Thread[] receivedOn = new Thread[1];
+		IEventListener first = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				return true;
+			}
+		};
+		IEventListener late = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				receivedOn[0] = Thread.currentThread();
+				received.add((Integer) ((ObjectEvent<?>) argEvent).getValue());
+				return true;
+			}
+		};
+		MVC.setSticky("sticky", true);
+		MVC.addEventListener("sticky", first);
+		for (int i = 0; i < 5; i++) {
+			new ObjectEvent<Integer>("sticky", i).dispatch();
+		}
+		MVC.completeRemainingEvents(2000);
+		
+		MVC.addEventListener("sticky", late);
+		new ObjectEvent<Integer>("sticky", 5).dispatch();
+		MVC.completeRemainingEvents(2000);
+		
+		assertEquals(Arrays.asList(4, 5), received);
+		assertTrue(receivedOn[0] instanceof MVC);
+		
+		MVC.removeEventListener("sticky", first);
+		MVC.removeEventListener("sticky", late);
+		MVC.setSticky("sticky", false);
+		assertNull(MVC.getStickyEvent("sticky"));
+	}
+	
+	public void testStickyReplayWithoutListeners() {
+		final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+		IEventListener late = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.add((Integer) ((ObjectEvent<?>) argEvent).getValue());
+				return true;
+			}
+		};
+		MVC.setSticky("sticky.unheard", true);
+		new ObjectEvent<Integer>("sticky.unheard", 1).dispatch();
+		new ObjectEvent<Integer>("sticky.unheard", 2).dispatchNow();
+		MVC.completeRemainingEvents(2000);
+		assertNotNull(MVC.getStickyEvent("sticky.unheard"));
+		
+		MVC.addEventListener("sticky.unheard", late);
+		MVC.completeRemainingEvents(2000);
+		
+		assertEquals(Arrays.asList(2), received);
+		
+		MVC.removeEventListener("sticky.unheard", late);
+		MVC.setSticky("sticky.unheard", false);
+	}
+	
+	public void testStickyReplayRacingDispatch() throws InterruptedException {
+		final CountDownLatch blocking = new CountDownLatch(1);
+		final CountDownLatch unblock = new CountDownLatch(1);
+		final CountDownLatch resolving = new CountDownLatch(1);
+		final CountDownLatch resume = new CountDownLatch(1);
+		final AtomicBoolean armed = new AtomicBoolean(false);
+		IEventListener blocker = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				blocking.countDown();
+				await(unblock);
+				return true;
+			}
+		};
+		IEventListener one = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				return true;
+			}
+		};
+		// compared with the other pattern listener while the dispatch
+		// thread resolves the listeners of the sticky key, which lets the
+		// test add a listener right after the event was recorded
+		IEventListener any = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				return true;
+			}
+			
+			@Override
+			public boolean equals(Object argOther) {
+				if (Thread.currentThread() instanceof MVC && armed.compareAndSet(true, false)) {
+					resolving.countDown();
+					await(resume);
+				}
+				return super.equals(argOther);
+			}
+		};
+		final List<MVCEvent> received = Collections.synchronizedList(new ArrayList<MVCEvent>());
+		final IEventListener late = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.add(argEvent);
+				return true;
+			}
+		};
+		MVC.setSticky("sticky.race", true);
+		MVC.addEventListener("race.block", blocker);
+		MVC.addEventListener("sticky.*", one);
+		MVC.addEventListener("sticky.**", any);
+		
+		new MVCEvent("race.block").dispatch();
+		assertTrue(blocking.await(2, TimeUnit.SECONDS));
+		MVCEvent event = new MVCEvent("sticky.race");
+		event.dispatch();
+		// changes the patterns, so the dispatch thread resolves them again
+		MVC.addEventListener("race.*", one);
+		armed.set(true);
+		unblock.countDown();
+		assertTrue(resolving.await(2, TimeUnit.SECONDS));
+		
+		Thread adder = new Thread() {
+			public void run() {
+				MVC.addEventListener("sticky.race", late);
+			}
+		};
+		adder.start();
+		adder.join(200);
+		resume.countDown();
+		adder.join();
+		MVC.completeRemainingEvents(2000);
+		
+		assertEquals(Arrays.asList(event), received);
+		
+		MVC.removeEventListener("race.block", blocker);
+		MVC.removeEventListener("race.*", one);
+		MVC.removeEventListener("sticky.*", one);
+		MVC.removeEventListener("sticky.**", any);
+		MVC.removeEventListener("sticky.race", late);
+		MVC.setSticky("sticky.race", false);
+	}
+	
+	private static void await(CountDownLatch argLatch) {
+		try {
+			argLatch.await(2, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:27:02 AM, Oct 19, 2026
+ */
+package com.dmurph.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.SwingUtilities;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.ObjectEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class SwingListenerTest extends TestCase {
+	
+	public void testSwingListeners() {
+		final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+		final boolean[] onEdt = { true };
+		final boolean[] sawSwing = { true };
+		IEventListener swing = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				onEdt[0] &= SwingUtilities.isEventDispatchThread();
+				received.add((Integer) ((ObjectEvent<?>) argEvent).getValue());
+				return true;
+			}
+		};
+		MVC.addSwingEventListener("swing", swing);
+		for (int i = 0; i < 5; i++) {
+			new ObjectEvent<Integer>("swing", i).dispatch();
+		}
+		MVC.completeRemainingEvents(2000);
+		assertEquals(Arrays.asList(0, 1, 2, 3, 4), received);
+		assertTrue(onEdt[0]);
+		assertTrue(MVC.removeEventListener("swing", swing));
+		
+		// in order, so the next listener sees what it did
+		received.clear();
+		MVC.addSwingEventListener("swing", swing, true);
+		IEventListener after = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				sawSwing[0] &= received.contains(((ObjectEvent<?>) argEvent).getValue());
+				return true;
+			}
+		};
+		MVC.addEventListener("swing", after);
+		new ObjectEvent<Integer>("swing", 5).dispatch();
+		MVC.completeRemainingEvents(2000);
+		new ObjectEvent<Integer>("swing", 6).dispatchNow();
+		MVC.completeRemainingEvents(2000);
+		assertEquals(Arrays.asList(5, 6), received);
+		assertTrue(sawSwing[0]);
+		assertTrue(MVC.removeEventListener("swing", swing));
+		assertTrue(MVC.removeEventListener("swing", after));
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 4:05:37 PM, Oct 17, 2026
+ */
+package com.dmurph.tests;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.IScheduledDispatch;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class TimerTest extends TestCase {
+	
+	public void testDispatchAfter() throws InterruptedException {
+		final CountDownLatch received = new CountDownLatch(1);
+		final AtomicInteger cancelledReceived = new AtomicInteger();
+		IEventListener listener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.countDown();
+				return true;
+			}
+		};
+		IEventListener cancelledListener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				cancelledReceived.incrementAndGet();
+				return true;
+			}
+		};
+		MVC.addEventListener("timer.after", listener);
+		MVC.addEventListener("timer.cancelled", cancelledListener);
+		
+		long start = System.nanoTime();
+		IScheduledDispatch cancelled = MVC.dispatchAfter(new MVCEvent("timer.cancelled"), 20, TimeUnit.MILLISECONDS);
+		IScheduledDispatch dispatch = MVC.dispatchAfter(new MVCEvent("timer.after"), 50, TimeUnit.MILLISECONDS);
+		assertTrue(cancelled.cancel());
+		assertFalse(cancelled.cancel());
+		
+		assertTrue(received.await(2, TimeUnit.SECONDS));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		assertTrue(dispatch.isDone());
+		assertFalse(dispatch.cancel());
+		assertTrue(cancelled.isCancelled());
+		MVC.completeRemainingEvents(2000);
+		assertEquals(0, cancelledReceived.get());
+		
+		MVC.removeEventListener("timer.after", listener);
+		MVC.removeEventListener("timer.cancelled", cancelledListener);
+	}
+	
+	public void testDispatchEvery() throws InterruptedException {
+		final CountDownLatch received = new CountDownLatch(3);
+		IEventListener listener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.countDown();
+				return true;
+			}
+		};
+		MVC.addEventListener("timer.every", listener);
+		
+		IScheduledDispatch dispatch = MVC.dispatchEvery("timer.every", 10, TimeUnit.MILLISECONDS);
+		assertTrue(received.await(2, TimeUnit.SECONDS));
+		assertTrue(dispatch.cancel());
+		assertEquals(0, MVC.getScheduledDispatchCount());
+		
+		MVC.removeEventListener("timer.every", listener);
+	}
+}
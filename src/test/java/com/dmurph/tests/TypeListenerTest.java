@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:21:37 AM, Oct 19, 2026
+ */
+package com.dmurph.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+import com.dmurph.mvc.ObjectEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class TypeListenerTest extends TestCase {
+	
+	public void testTypeListeners() {
+		final List<String> objects = Collections.synchronizedList(new ArrayList<String>());
+		final List<String> orders = Collections.synchronizedList(new ArrayList<String>());
+		IEventListener objectListener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				objects.add(argEvent.key);
+				return true;
+			}
+		};
+		IEventListener orderListener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				orders.add(argEvent.key);
+				return true;
+			}
+		};
+		MVC.addEventListener(ObjectEvent.class, objectListener);
+		MVC.addEventListener(OrderEvent.class, orderListener);
+		assertTrue(MVC.isEventListener(OrderEvent.class, orderListener));
+		
+		new MVCEvent("type.plain").dispatch();
+		new ObjectEvent<String>("type.object", "value").dispatch();
+		new OrderEvent("type.order").dispatch();
+		MVC.completeRemainingEvents(2000);
+		
+		assertEquals(Arrays.asList("type.object", "type.order"), objects);
+		assertEquals(Arrays.asList("type.order"), orders);
+		
+		assertTrue(MVC.removeEventListener(ObjectEvent.class, objectListener));
+		assertTrue(MVC.removeEventListener(OrderEvent.class, orderListener));
+	}
+	
+	private static class OrderEvent extends ObjectEvent<String> {
+		private static final long serialVersionUID = 1L;
+		
+		public OrderEvent(String argKey) {
+			super(argKey, "order");
+		}
+	}
+	
+	public void testSuperInterfaceListenerRemoval() {
+		final int[] received = new int[1];
+		IEventListener listener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received[0]++;
+				return false;
+			}
+		};
+		MVC.addEventListener(IAuditable.class, listener);
+		
+		new AuditEvent("type.audit").dispatch();
+		MVC.completeRemainingEvents(2000);
+		new AuditEvent("type.audit").dispatch();
+		MVC.completeRemainingEvents(2000);
+		
+		assertEquals(1, received[0]);
+		assertFalse(MVC.isEventListener(IAuditable.class, listener));
+	}
+	
+	private static interface IAuditable {}
+	
+	private static interface ITrackedAuditable extends IAuditable {}
+	
+	private static class AuditEvent extends MVCEvent implements ITrackedAuditable {
+		private static final long serialVersionUID = 1L;
+		
+		public AuditEvent(String argKey) {
+			super(argKey);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:25:40 AM, Oct 19, 2026
+ */
+package com.dmurph.tests;
+
+import java.lang.ref.WeakReference;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class WeakListenerTest extends TestCase {
+	
+	public void testWeakListeners() throws InterruptedException {
+		final int[] received = new int[1];
+		IEventListener listener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received[0]++;
+				return true;
+			}
+		};
+		MVC.addWeakEventListener("weak", listener);
+		assertTrue(MVC.isEventListener("weak", listener));
+		new MVCEvent("weak").dispatch();
+		new MVCEvent("weak").dispatchNow();
+		MVC.completeRemainingEvents(2000);
+		assertEquals(2, received[0]);
+		assertTrue(MVC.removeEventListener("weak", listener));
+		
+		MVC.addWeakEventListener("weak", listener);
+		WeakReference<IEventListener> probe = new WeakReference<IEventListener>(listener);
+		listener = null;
+		for (int i = 0; i < 20 && probe.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		// collected listeners are skipped, then removed by the dispatcher
+		new MVCEvent("weak").dispatch();
+		new MVCEvent("weak").dispatch();
+		MVC.completeRemainingEvents(2000);
+		if (probe.get() == null) {
+			assertEquals(2, received[0]);
+		}
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010 Daniel Murphy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Created at 10:20:09 AM, Oct 19, 2026
+ */
+package com.dmurph.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.dmurph.mvc.IEventListener;
+import com.dmurph.mvc.MVC;
+import com.dmurph.mvc.MVCEvent;
+
+/**
+ * @author Daniel Murphy
+ */
+public class WildcardKeyTest extends TestCase {
+	
+	public void testWildcardKeys() {
+		final List<String> one = Collections.synchronizedList(new ArrayList<String>());
+		final List<String> any = Collections.synchronizedList(new ArrayList<String>());
+		IEventListener oneListener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				one.add(argEvent.key);
+				return true;
+			}
+		};
+		IEventListener anyListener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				any.add(argEvent.key);
+				return true;
+			}
+		};
+		MVC.addEventListener("order.*", oneListener);
+		MVC.addEventListener("order.**", anyListener);
+		assertTrue(MVC.isEventListener("order.*", oneListener));
+		
+		String[] keys = { "order", "order.created", "order.updated.price", "orders.created" };
+		for (String key : keys) {
+			new MVCEvent(key).dispatch();
+		}
+		MVC.completeRemainingEvents(2000);
+		assertEquals(Arrays.asList("order.created"), one);
+		assertEquals(Arrays.asList("order", "order.created", "order.updated.price"), any);
+		
+		assertTrue(MVC.removeEventListener("order.*", oneListener));
+		new MVCEvent("order.created").dispatch();
+		MVC.completeRemainingEvents(2000);
+		assertEquals(1, one.size());
+		assertEquals(4, any.size());
+		
+		MVC.removeEventListener("order.**", anyListener);
+		assertTrue(MVC.getListeners("order.created").isEmpty());
+	}
+	
+	public void testWildcardWithExactListeners() {
+		final List<String> received = Collections.synchronizedList(new ArrayList<String>());
+		IEventListener anyListener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.add("any " + argEvent.key);
+				return true;
+			}
+		};
+		IEventListener exactListener = new IEventListener() {
+			public boolean eventReceived(MVCEvent argEvent) {
+				received.add("exact " + argEvent.key);
+				return true;
+			}
+		};
+		MVC.addEventListener("item.**", anyListener);
+		new MVCEvent("item.added").dispatch();
+		MVC.completeRemainingEvents(2000);
+		
+		// the key's own listeners change after its listeners were resolved
+		MVC.addEventListener("item.added", exactListener);
+		new MVCEvent("item.added").dispatch();
+		new MVCEvent("item.removed").dispatch();
+		MVC.completeRemainingEvents(2000);
+		
+		MVC.removeEventListener("item.added", exactListener);
+		new MVCEvent("item.added").dispatch();
+		MVC.completeRemainingEvents(2000);
+		assertEquals(Arrays.asList("any item.added", "exact item.added", "any item.added",
+				"any item.removed", "any item.added"), received);
+		
+		MVC.removeEventListener("item.**", anyListener);
+	}
+}